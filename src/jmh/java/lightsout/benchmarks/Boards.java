@@ -0,0 +1,29 @@
+package lightsout.benchmarks;
+
+import lightsout.Grids;
+
+import java.util.Random;
+
+/**
+ * Generates boards for the benchmarks.
+ */
+final class Boards {
+    static final int COUNT = 1024;
+
+    private Boards() {
+    }
+
+    /**
+     * @param n    size of the grid
+     * @param seed seed of the random presses
+     * @return COUNT solvable boards reshaped(by rows) into vectors of length n^2
+     */
+    static int[][] solvableBoards(int n, long seed) {
+        Random random = new Random(seed);
+        int[][] boards = new int[COUNT][];
+        for (int b = 0; b < COUNT; b++) {
+            boards[b] = Grids.solvableGrid(random, n);
+        }
+        return boards;
+    }
+}
@@ -0,0 +1,54 @@
+package lightsout.benchmarks;
+
+import lightsout.utilities.solver.GeneratedProblem;
+import lightsout.utilities.solver.ProblemGenerator;
+import lightsout.utilities.solver.Solver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks generating solvable boards of every supported size, without and with a required difficulty.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProblemGeneratorBenchmark {
+
+    @Param({"3", "4", "5", "6", "7", "8"})
+    int n;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private ProblemGenerator generator;
+
+    @Setup
+    public void setup() {
+        Solver solver = new Solver();
+        solver.precompute(n);
+        generator = new ProblemGenerator(solver);
+    }
+
+    @Benchmark
+    public GeneratedProblem[] generate() {
+        return generator.generate(n, 1, 0, random);
+    }
+
+    @Benchmark
+    public GeneratedProblem[] generateHalfPressed() {
+        return generator.generate(n, 1, n * n / 2, random);
+    }
+}
@@ -0,0 +1,55 @@
+package lightsout.benchmarks;
+
+import lightsout.utilities.solutionchecker.NotASolutionException;
+import lightsout.utilities.solutionchecker.SolutionChecker;
+import lightsout.utilities.solver.Solver;
+import lightsout.utilities.solver.UnsolvableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks checking correct solutions of boards of every supported size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SolutionCheckerBenchmark {
+
+    @Param({"3", "4", "5", "6", "7", "8"})
+    int n;
+
+    private final SolutionChecker solutionChecker = new SolutionChecker();
+    private int[][] boards;
+    private int[][] solutions;
+    private int next;
+
+    @Setup
+    public void setup() throws UnsolvableException {
+        Solver solver = new Solver();
+        boards = Boards.solvableBoards(n, 42);
+        solutions = new int[boards.length][];
+        for (int b = 0; b < boards.length; b++) {
+            solutions[b] = solver.solve(boards[b]);
+        }
+    }
+
+    @Benchmark
+    public void checkSolutionIsCorrect() throws NotASolutionException {
+        next = (next + 1) & (Boards.COUNT - 1);
+        solutionChecker.checkSolutionIsCorrect(boards[next], solutions[next]);
+    }
+}
@@ -0,0 +1,54 @@
+package lightsout.benchmarks;
+
+import lightsout.utilities.solver.Solver;
+import lightsout.utilities.solver.UnsolvableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks solving boards with the solver, on the sizes solved by the precomputed matrix (3-8)
+ * and on some sizes solved by light chasing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SolverBenchmark {
+
+    @Param({"3", "4", "5", "6", "7", "8", "9", "20", "64"})
+    int n;
+
+    private Solver solver;
+    private int[][] boards;
+    private int next;
+
+    @Setup
+    public void setup() {
+        solver = new Solver();
+        solver.precompute(n);
+        boards = Boards.solvableBoards(n, 42);
+    }
+
+    @Benchmark
+    public int[] solverSolve() throws UnsolvableException {
+        return solver.solve(boards[nextBoard()]);
+    }
+
+    private int nextBoard() {
+        next = (next + 1) & (Boards.COUNT - 1);
+        return next;
+    }
+}
@@ -0,0 +1,80 @@
+package lightsout.dtos;
+
+import lightsout.models.Board;
+
+import javax.json.bind.JsonbException;
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.stream.JsonParser;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * Reads a nxn array of 0s and 1s straight into the bitmask of a board.
+ * Grids that are empty, not square, not made of 0s and 1s or wider than {@link #MAX_SIZE} are rejected while reading.
+ * The bitmask grows with the fields read, so a malicious body can't make it allocate more than its own size.
+ */
+public class BoardDeserializer implements JsonbDeserializer<Board> {
+    /**
+     * Hard cap on the size of grids that are read at all, the configured maximum is checked later by the services.
+     */
+    static final int MAX_SIZE = 1000;
+
+    @Override
+    public Board deserialize(JsonParser parser, DeserializationContext context, Type type) {
+        long[] bits = new long[1];
+        int rows = 0;
+        int columns = -1;
+        while (parser.hasNext()) {
+            JsonParser.Event event = parser.next();
+            if (event == JsonParser.Event.END_ARRAY) {
+                break;
+            }
+            if (event != JsonParser.Event.START_ARRAY) {
+                throw new JsonbException("Grid must be an array of rows.");
+            }
+            if (rows == columns) {
+                throw new JsonbException("Grid must be of square size.");
+            }
+            int column = 0;
+            for (event = parser.next(); event != JsonParser.Event.END_ARRAY; event = parser.next()) {
+                if (event != JsonParser.Event.VALUE_NUMBER || !parser.isIntegralNumber()) {
+                    throw new JsonbException("Grid must be made of 0s and 1s only.");
+                }
+                int value = parser.getInt();
+                if (value != 0 && value != 1) {
+                    throw new JsonbException("Grid must be made of 0s and 1s only.");
+                }
+                if (column == columns) {
+                    throw new JsonbException("Grid must be of square size.");
+                }
+                if (column == MAX_SIZE) {
+                    throw new JsonbException("Grid must be at most " + MAX_SIZE + "x" + MAX_SIZE + ".");
+                }
+                int field = rows * Math.max(columns, 0) + column;
+                bits = ensureCapacity(bits, field + 1);
+                if (value == 1) {
+                    bits[field >>> 6] |= 1L << field;
+                }
+                column++;
+            }
+            if (columns == -1) {
+                columns = column;
+            } else if (column != columns) {
+                throw new JsonbException("Grid must be of square size.");
+            }
+            rows++;
+        }
+        if (rows == 0 || columns == 0) {
+            throw new JsonbException("Grid must not be empty.");
+        }
+        if (rows != columns) {
+            throw new JsonbException("Grid must be of square size.");
+        }
+        return Board.of(columns, Arrays.copyOf(bits, Board.words(rows * columns)));
+    }
+
+    private static long[] ensureCapacity(long[] bits, int fields) {
+        return bits.length >= Board.words(fields) ? bits : Arrays.copyOf(bits, bits.length * 2);
+    }
+}
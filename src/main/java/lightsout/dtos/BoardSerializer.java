@@ -0,0 +1,27 @@
+package lightsout.dtos;
+
+import lightsout.models.Board;
+
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Writes a board as a nxn array of 0s and 1s, straight from its bitmask.
+ */
+public class BoardSerializer implements JsonbSerializer<Board> {
+
+    @Override
+    public void serialize(Board board, JsonGenerator generator, SerializationContext context) {
+        int n = board.getSize();
+        generator.writeStartArray();
+        for (int i = 0; i < n; i++) {
+            generator.writeStartArray();
+            for (int j = 0; j < n; j++) {
+                generator.write(board.isLit(i * n + j) ? 1 : 0);
+            }
+            generator.writeEnd();
+        }
+        generator.writeEnd();
+    }
+}
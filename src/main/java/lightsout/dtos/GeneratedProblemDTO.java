@@ -0,0 +1,26 @@
+package lightsout.dtos;
+
+import lightsout.models.Board;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import javax.json.bind.annotation.JsonbTypeDeserializer;
+import javax.json.bind.annotation.JsonbTypeSerializer;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GeneratedProblemDTO {
+    @Schema(type = SchemaType.ARRAY, description = "nxn grid of 0s and 1s.", example = "[[0, 1, 0], [1, 1, 1], [0, 1, 0]]")
+    @JsonbTypeSerializer(BoardSerializer.class)
+    @JsonbTypeDeserializer(BoardDeserializer.class)
+    private Board grid;
+    /**
+     * Number of presses in the optimal solution, only an upper bound for the grid sizes whose null space is too large
+     * to be searched (more than 20 dimensions, e.g. n = 39, 47, 61 or 79).
+     */
+    private int presses;
+}
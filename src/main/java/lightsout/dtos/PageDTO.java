@@ -0,0 +1,19 @@
+package lightsout.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a listing, ordered by id.
+ * The next page is requested with after set to nextCursor, which is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageDTO<T> {
+    private List<T> items;
+    private Long nextCursor;
+}
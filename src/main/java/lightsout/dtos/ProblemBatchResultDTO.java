@@ -0,0 +1,15 @@
+package lightsout.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProblemBatchResultDTO {
+    private List<ProblemDTO> addedProblems;
+    private List<Integer> unsolvableIndices;
+}
@@ -1,11 +1,15 @@
 package lightsout.dtos;
 
+import lightsout.models.Board;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import lombok.ToString;
 
-import java.util.List;
+import javax.json.bind.annotation.JsonbTypeDeserializer;
+import javax.json.bind.annotation.JsonbTypeSerializer;
 
 @Data
 @AllArgsConstructor
@@ -13,6 +17,9 @@ import java.util.List;
 @ToString
 public class ProblemDTO {
     private long id;
-    private List<List<Integer>> grid;
+    @Schema(type = SchemaType.ARRAY, description = "nxn grid of 0s and 1s.", example = "[[0, 1, 0], [1, 1, 1], [0, 1, 0]]")
+    @JsonbTypeSerializer(BoardSerializer.class)
+    @JsonbTypeDeserializer(BoardDeserializer.class)
+    private Board grid;
     private String createdByUsername;
 }
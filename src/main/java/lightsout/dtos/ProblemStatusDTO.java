@@ -0,0 +1,18 @@
+package lightsout.dtos;
+
+import lightsout.models.ProblemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProblemStatusDTO {
+    private long id;
+    private ProblemStatus status;
+    /**
+     * Field numbers to press, only set once the problem is found solvable.
+     */
+    private int[] solution;
+}
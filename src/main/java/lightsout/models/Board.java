@@ -0,0 +1,123 @@
+package lightsout.models;
+
+import org.hibernate.annotations.Immutable;
+
+import java.util.Arrays;
+
+/**
+ * Square grid of lights, kept as a bitmask. Field i (numbered by rows) is bit i % 64 of word i / 64.
+ * Grids stay in this form from the request body to the database and back, so no field is ever boxed.
+ * Boards are immutable, which Hibernate relies on to compare and copy the grids of problems without converting them.
+ */
+@Immutable
+public final class Board {
+    private final int size;
+    private final long[] bits;
+
+    private Board(int size, long[] bits) {
+        this.size = size;
+        this.bits = bits;
+    }
+
+    /**
+     * @param size  n, the size of the nxn grid
+     * @param bits  bitmask of the lit fields, it is not copied and must not be modified afterwards
+     * @return board with the given fields lit
+     * @throws IllegalArgumentException if size is not positive, or the bitmask is of the wrong length
+     *                                  or has bits set past the last field
+     */
+    public static Board of(int size, long[] bits) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Grid size must be a positive integer.");
+        }
+        int fields = size * size;
+        if (bits.length != words(fields)) {
+            throw new IllegalArgumentException("Bitmask must have " + words(fields) + " words.");
+        }
+        if (fields % 64 != 0 && bits[bits.length - 1] >>> (fields % 64) != 0) {
+            throw new IllegalArgumentException("Bitmask must not have bits set past the last field.");
+        }
+        return new Board(size, bits);
+    }
+
+    /**
+     * @param vector grid of 0s and 1s reshaped(by rows) into a vector of length n^2
+     * @return board with the fields set to 1 lit
+     * @throws IllegalArgumentException if the vector is empty, not of length n^2 or not made of 0s and 1s
+     */
+    public static Board of(int[] vector) {
+        int size = (int) Math.round(Math.sqrt(vector.length));
+        if (size == 0 || size * size != vector.length) {
+            throw new IllegalArgumentException("Grid must be of square size.");
+        }
+        long[] bits = new long[words(vector.length)];
+        for (int i = 0; i < vector.length; i++) {
+            if (vector[i] == 1) {
+                bits[i >>> 6] |= 1L << i;
+            } else if (vector[i] != 0) {
+                throw new IllegalArgumentException("Grid must be made of 0s and 1s only.");
+            }
+        }
+        return new Board(size, bits);
+    }
+
+    /**
+     * @param fields number of fields
+     * @return number of longs needed for the bitmask of the given number of fields
+     */
+    public static int words(int fields) {
+        return (fields + 63) >>> 6;
+    }
+
+    /**
+     * @return n, the size of the nxn grid
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isLit(int field) {
+        return (bits[field >>> 6] & (1L << field)) != 0;
+    }
+
+    /**
+     * @return the grid reshaped(by rows) into a vector of 0s and 1s
+     */
+    public int[] toVector() {
+        int[] vector = new int[size * size];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (int) (bits[i >>> 6] >>> i) & 1;
+        }
+        return vector;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Board)) {
+            return false;
+        }
+        Board that = (Board) o;
+        return size == that.size && Arrays.equals(bits, that.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            builder.append(i == 0 ? "[" : ", [");
+            for (int j = 0; j < size; j++) {
+                builder.append(j == 0 ? "" : ", ").append(isLit(i * size + j) ? 1 : 0);
+            }
+            builder.append("]");
+        }
+        return builder.append("]").toString();
+    }
+}
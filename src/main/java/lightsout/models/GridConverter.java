@@ -0,0 +1,53 @@
+package lightsout.models;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a board as a bitmask of its fields, numbered by rows.
+ * Field i is bit i % 8 of byte i / 8. One more bit is set right after the last field,
+ * so the number of fields can be read back from the bitmask itself.
+ */
+@Converter
+public class GridConverter implements AttributeConverter<Board, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(Board board) {
+        if (board == null) {
+            return null;
+        }
+        int length = board.getSize() * board.getSize();
+        byte[] bitmask = new byte[length / 8 + 1];
+        for (int i = 0; i < length; i++) {
+            if (board.isLit(i)) {
+                bitmask[i >>> 3] |= 1 << (i & 7);
+            }
+        }
+        bitmask[length >>> 3] |= 1 << (length & 7); // stop bit
+        return bitmask;
+    }
+
+    @Override
+    public Board convertToEntityAttribute(byte[] bitmask) {
+        if (bitmask == null) {
+            return null;
+        }
+        int last = bitmask.length - 1;
+        while (last >= 0 && bitmask[last] == 0) {
+            last--;
+        }
+        if (last < 0) {
+            throw new IllegalArgumentException("Grid bitmask is missing the stop bit.");
+        }
+        int length = (last << 3) + 31 - Integer.numberOfLeadingZeros(bitmask[last] & 0xff);
+        int size = (int) Math.round(Math.sqrt(length));
+        if (size * size != length) {
+            throw new IllegalArgumentException("Grid bitmask must have n^2 fields.");
+        }
+        long[] bits = new long[Board.words(length)];
+        for (int i = 0; i < length; i++) {
+            bits[i >>> 6] |= (long) ((bitmask[i >>> 3] >>> (i & 7)) & 1) << i;
+        }
+        return Board.of(size, bits);
+    }
+}
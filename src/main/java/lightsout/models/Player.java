@@ -1,17 +1,22 @@
 package lightsout.models;
 
 import lombok.Data;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 
 @Entity
+@Cacheable
+@NaturalIdCache
 @Data
 public class Player {
     @Id
     @Column(nullable = false)
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
+    @NaturalId
     @Size(min = 3, max = 12)
     @Column(nullable = false, unique = true)
     private String username;
@@ -0,0 +1,76 @@
+package lightsout.models;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a sequence of pressed field numbers as bytes, in order.
+ * Every field number is written 7 bits at a time, lowest bits first, with the high bit of a byte set
+ * while more bytes of the same number follow. Fields below 128 take one byte, fields below 16384 two.
+ */
+@Converter
+public class PressesConverter implements AttributeConverter<int[], byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(int[] presses) {
+        if (presses == null) {
+            return null;
+        }
+        int length = 0;
+        for (int press : presses) {
+            length += encodedLength(press);
+        }
+        byte[] bytes = new byte[length];
+        int k = 0;
+        for (int press : presses) {
+            if (press < 0) {
+                throw new IllegalArgumentException("Pressed field numbers must not be negative.");
+            }
+            while (press >= 0x80) {
+                bytes[k++] = (byte) (press & 0x7f | 0x80);
+                press >>>= 7;
+            }
+            bytes[k++] = (byte) press;
+        }
+        return bytes;
+    }
+
+    @Override
+    public int[] convertToEntityAttribute(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        int length = 0;
+        for (byte b : bytes) {
+            if (b >= 0) { // last byte of a number
+                length++;
+            }
+        }
+        int[] presses = new int[length];
+        int k = 0;
+        int press = 0;
+        int shift = 0;
+        for (byte b : bytes) {
+            press |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                presses[k++] = press;
+                press = 0;
+                shift = 0;
+            } else {
+                shift += 7;
+            }
+        }
+        if (shift != 0) {
+            throw new IllegalArgumentException("Presses end in the middle of a field number.");
+        }
+        return presses;
+    }
+
+    private static int encodedLength(int press) {
+        int length = 1;
+        while ((press >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+}
@@ -3,9 +3,13 @@ package lightsout.models;
 import lombok.Data;
 
 import javax.persistence.*;
-import java.util.List;
 
 @Entity
+@Cacheable
+@Table(indexes = {
+        @Index(name = "problem_canonicalkey_index", columnList = "canonicalKey"),
+        @Index(name = "problem_createdby_index", columnList = "createdBy_id, id")
+})
 @Data
 public class Problem {
     @Id
@@ -13,9 +17,30 @@ public class Problem {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
-    @ElementCollection
+    @Convert(converter = GridConverter.class)
     @Column(nullable = false)
-    private List<Integer> grid;
+    private Board grid;
+
+    @Column(nullable = false)
+    private int size;
+
+    /**
+     * Key of the grid shared by all its rotations and reflections, see {@link lightsout.utilities.solver.CanonicalBoard}.
+     * Null only for problems stored before the key existed, until they are filled in at startup.
+     */
+    private Long canonicalKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ProblemStatus status;
+
+    /**
+     * Solution with the least number of presses, once solved, see {@link lightsout.utilities.solver.Solver#isOptimal(int)}
+     * for the sizes where it may have more.
+     * Null for problems stored before solutions were kept, those are solved again when needed.
+     */
+    @Convert(converter = PressesConverter.class)
+    private int[] solution;
 
     @ManyToOne
     private Player createdBy;
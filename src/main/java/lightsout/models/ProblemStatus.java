@@ -0,0 +1,13 @@
+package lightsout.models;
+
+/**
+ * Whether a problem was solved yet and how it turned out.
+ */
+public enum ProblemStatus {
+    /**
+     * The problem is stored, but waiting to be solved.
+     */
+    PENDING,
+    SOLVABLE,
+    UNSOLVABLE
+}
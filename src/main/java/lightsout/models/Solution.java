@@ -5,6 +5,10 @@ import lombok.Data;
 import javax.persistence.*;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "solution_problem_index", columnList = "problem_id, id"),
+        @Index(name = "solution_solvedby_index", columnList = "solvedBy_id, id")
+})
 @Data
 public class Solution {
     @Id
@@ -15,5 +19,8 @@ public class Solution {
     private Problem problem;
     @ManyToOne
     private Player solvedBy;
-    
+
+    @Convert(converter = PressesConverter.class)
+    @Column(nullable = false)
+    private int[] presses;
 }
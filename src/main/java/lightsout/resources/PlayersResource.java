@@ -1,9 +1,9 @@
 package lightsout.resources;
 
+import lightsout.dtos.PageDTO;
 import lightsout.dtos.PlayerDTO;
 import lightsout.services.PlayersService;
 import org.eclipse.microprofile.openapi.annotations.Operation;
-import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
@@ -14,7 +14,6 @@ import javax.inject.Inject;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.util.List;
 
 @Path("/players")
 @Produces(MediaType.APPLICATION_JSON)
@@ -23,16 +22,28 @@ public class PlayersResource {
     @Inject
     PlayersService playersService;
 
-    @Operation(description = "Gets all players.",
+    @Operation(description = "Gets all players. The list is paged by id, at most limit (100 by default, 1000 at most) " +
+            "items are returned and the next page is requested with after set to the returned nextCursor.",
             summary = "Get all players.")
-    @APIResponse(
-            responseCode = "200",
-            description = "All players.",
-            content = @Content(schema = @Schema(implementation = PlayerDTO.class, type = SchemaType.ARRAY))
-    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Page of all players."
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Limit was out of range."
+            )
+    })
     @GET
-    public List<PlayerDTO> getPlayers() {
-        return playersService.getPlayers();
+    public PageDTO<PlayerDTO> getPlayers(@QueryParam("after") @DefaultValue("0") long after,
+            @QueryParam("limit") @DefaultValue("100") int limit) {
+        try {
+            return playersService.getPlayers(after, limit);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage()).build());
+        }
     }
 
     @Operation(description = "Creates a player with the desired username and age. The username must be between 3 and 12 characters long (inclusive)." +
@@ -1,7 +1,12 @@
 package lightsout.resources;
 
+import lightsout.dtos.GeneratedProblemDTO;
+import lightsout.dtos.PageDTO;
+import lightsout.dtos.ProblemBatchResultDTO;
 import lightsout.dtos.ProblemDTO;
+import lightsout.dtos.ProblemStatusDTO;
 import lightsout.services.ProblemsService;
+import lightsout.services.SolveJobsService;
 import lightsout.utilities.solver.UnsolvableException;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
@@ -14,39 +19,102 @@ import javax.inject.Inject;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @Path("/problems")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class ProblemsResource {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Inject
     ProblemsService problemsService;
 
-    @Operation(description = "Gets all problems.",
+    @Inject
+    SolveJobsService solveJobsService;
+
+    @Operation(description = "Gets all problems. The list is paged by id, at most limit (100 by default, 1000 at most) " +
+            "items are returned and the next page is requested with after set to the returned nextCursor.",
             summary = "Get all problems.")
-    @APIResponse(
-            responseCode = "200",
-            description = "All problems.",
-            content = @Content(schema = @Schema(implementation = ProblemDTO.class, type = SchemaType.ARRAY))
-    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Page of all problems."
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Limit was out of range."
+            )
+    })
     @GET
-    public List<ProblemDTO> getProblems() {
-        return problemsService.getProblems();
+    public PageDTO<ProblemDTO> getProblems(@QueryParam("after") @DefaultValue("0") long after,
+            @QueryParam("limit") @DefaultValue("100") int limit) {
+        try {
+            return problemsService.getProblems(after, limit);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage()).build());
+        }
     }
 
-    @Operation(description = "Gets all problems created by user with given username.",
+    @Operation(description = "Gets all problems created by user with given username. The list is paged by id, at most limit (100 by default, 1000 at most) " +
+            "items are returned and the next page is requested with after set to the returned nextCursor.",
             summary = "Get all problems created by user with given username.")
-    @APIResponse(
-            responseCode = "200",
-            description = "All problems created by user with given username.",
-            content = @Content(schema = @Schema(implementation = ProblemDTO.class, type = SchemaType.ARRAY))
-    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Page of all problems created by user with given username."
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Limit was out of range."
+            )
+    })
     @Path("creator/{username}")
     @GET
-    public List<ProblemDTO> getProblemsByCreator(@PathParam("username") String username) {
-        return problemsService.getProblemsCreatedBy(username);
+    public PageDTO<ProblemDTO> getProblemsByCreator(@PathParam("username") String username,
+            @QueryParam("after") @DefaultValue("0") long after,
+            @QueryParam("limit") @DefaultValue("100") int limit) {
+        try {
+            return problemsService.getProblemsCreatedBy(username, after, limit);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage()).build());
+        }
+    }
+
+    @Operation(description = "Generates random nxn problems, which are solvable by construction. Every problem is " +
+            "returned with the number of presses in its optimal solution, which is at least minPresses. " +
+            "For grid sizes whose null space has more than 20 dimensions (n = 39, 47, 59, 61, 62, 64, 65, 67, 79, 95 " +
+            "and some larger ones) the optimal solution is not searched for, the number of presses is only an upper bound and minPresses must be 0. " +
+            "At most 1000 problems are generated at once and nothing is persisted.",
+            summary = "Generate random solvable problems.")
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Generated problems."
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Size, count or minimal number of presses was out of range, " +
+                            "or a minimal number of presses was given for a size whose optimal solutions are not searched for."
+            )
+    })
+    @Path("generate")
+    @GET
+    public List<GeneratedProblemDTO> generateProblems(@QueryParam("n") @DefaultValue("5") int n,
+            @QueryParam("count") @DefaultValue("1") int count,
+            @QueryParam("minPresses") @DefaultValue("0") int minPresses) {
+        try {
+            return problemsService.generateProblems(n, count, minPresses);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage()).build());
+        }
     }
 
     @Operation(description = "Gets problem with the given id.",
@@ -73,8 +141,77 @@ public class ProblemsResource {
         return problem;
     }
 
+    @Operation(description = "Gets the solution with the least number of presses to the problem with the given id. " +
+            "Solution is represented as an array of grid field numbers that need to be pressed, to solve the game. " +
+            "The numbering starts with 0 and is row-oriented. " +
+            "For grid sizes whose null space has more than 20 dimensions (n = 39, 47, 59, 61, 62, 64, 65, 67, 79, 95 " +
+            "and some larger ones) the optimal solution is not searched for, so the solution may have more presses than needed.",
+            summary = "Get the solution to the problem with the given id.")
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Solution to the problem with the given id.",
+                    content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = Integer.class))
+            ),
+            @APIResponse(
+                    responseCode = "404",
+                    description = "Problem with the given id was not found."
+            )
+    })
+    @Path("{id}/solution")
+    @GET
+    public int[] getSolution(@PathParam("id") long id) {
+        int[] solution = problemsService.getSolution(id);
+        if (solution == null) {
+            throw new NotFoundException(Response.status(Response.Status.NOT_FOUND)
+                    .entity("Problem with given id was not found.").build());
+        }
+        return solution;
+    }
+
+    @Operation(description = "Exports all problems as NDJSON, one problem per line in the same format as in the listings, " +
+            "ordered by id. The problems are streamed as they are read from the database, for offline analysis of the whole corpus.",
+            summary = "Export all problems.")
+    @APIResponse(
+            responseCode = "200",
+            description = "All problems, one per line."
+    )
+    @Path("export")
+    @GET
+    @Produces(NDJSON)
+    public StreamingOutput exportProblems() {
+        return problemsService::exportProblems;
+    }
+
+    @Operation(description = "Gets the status of the problem with the given id. A problem added asynchronously is " +
+            "pending until it is solved, then it is either solvable, with the solution included, or unsolvable.",
+            summary = "Get the status of the problem with the given id.")
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Status of the problem with the given id.",
+                    content = @Content(schema = @Schema(implementation = ProblemStatusDTO.class))
+            ),
+            @APIResponse(
+                    responseCode = "404",
+                    description = "Problem with the given id was not found."
+            )
+    })
+    @Path("{id}/status")
+    @GET
+    public ProblemStatusDTO getProblemStatus(@PathParam("id") long id) {
+        ProblemStatusDTO status = problemsService.getProblemStatus(id);
+        if (status == null) {
+            throw new NotFoundException(Response.status(Response.Status.NOT_FOUND)
+                    .entity("Problem with given id was not found.").build());
+        }
+        return status;
+    }
+
     @Operation(description = "Adds a new problem. The problem must be given as a nxn grid of 0s and 1s, " +
-            "where n > 2 and n < 9. The id in body is omitted.",
+            "where n > 2 and n is at most the configured maximum (lightsout.grid.max-size, 200 by default). " +
+            "The id in body is omitted. With async set, the problem is stored as pending and solved in the background, " +
+            "its status is then polled at the returned location.",
             summary = "Add a new problem.")
     @APIResponses({
             @APIResponse(
@@ -82,6 +219,11 @@ public class ProblemsResource {
                     description = "Persisted problem.",
                     content = @Content(schema = @Schema(implementation = ProblemDTO.class))
             ),
+            @APIResponse(
+                    responseCode = "202",
+                    description = "Problem was persisted and will be solved in the background.",
+                    content = @Content(schema = @Schema(implementation = ProblemStatusDTO.class))
+            ),
             @APIResponse(
                     responseCode = "400",
                     description = "Problem was not in the correct format."
@@ -89,20 +231,58 @@ public class ProblemsResource {
             @APIResponse(
                     responseCode = "400",
                     description = "Problem was not solvable."
+            ),
+            @APIResponse(
+                    responseCode = "503",
+                    description = "Too many problems are waiting to be solved."
             )
     })
     @POST
-    public ProblemDTO addProblem(ProblemDTO problemDTO) {
+    public Response addProblem(ProblemDTO problemDTO, @QueryParam("async") boolean async) {
         try {
-            return problemsService.addProblem(problemDTO.getGrid(), problemDTO.getCreatedByUsername());
+            if (async) {
+                ProblemStatusDTO status = solveJobsService.addProblem(problemDTO.getGrid(), problemDTO.getCreatedByUsername());
+                return Response.accepted(status)
+                        .location(URI.create("/problems/" + status.getId() + "/status"))
+                        .build();
+            }
+            return Response.ok(problemsService.addProblem(problemDTO.getGrid(), problemDTO.getCreatedByUsername())).build();
         } catch (UnsolvableException e) {
             throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
                     .entity("The given problem is unsolvable.").build());
         } catch (IllegalArgumentException e) {
             throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
                     .entity(e.getMessage()).build());
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(e.getMessage()).build());
         }
     }
 
+    @Operation(description = "Adds many problems at once, in a single transaction. Every problem must be in the same " +
+            "format as for adding a single problem. The problems are solved in parallel and only the solvable ones are " +
+            "persisted, the positions of the unsolvable ones in the request are returned.",
+            summary = "Add many problems at once.")
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Persisted problems and positions of the unsolvable problems.",
+                    content = @Content(schema = @Schema(implementation = ProblemBatchResultDTO.class))
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "A problem was not in the correct format. Nothing was persisted."
+            )
+    })
+    @Path("batch")
+    @POST
+    public ProblemBatchResultDTO addProblems(List<ProblemDTO> problemDTOs) {
+        try {
+            return problemsService.addProblems(problemDTOs);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage()).build());
+        }
+    }
 
 }
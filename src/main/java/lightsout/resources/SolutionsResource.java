@@ -1,12 +1,10 @@
 package lightsout.resources;
 
+import lightsout.dtos.PageDTO;
 import lightsout.dtos.ProblemSolutionDTO;
 import lightsout.services.SolutionsService;
 import lightsout.utilities.solutionchecker.NotASolutionException;
 import org.eclipse.microprofile.openapi.annotations.Operation;
-import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
-import org.eclipse.microprofile.openapi.annotations.media.Content;
-import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 
@@ -14,7 +12,7 @@ import javax.inject.Inject;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.util.List;
+import javax.ws.rs.core.StreamingOutput;
 
 /**
  * Service for adding and retrieving solutions.
@@ -23,45 +21,99 @@ import java.util.List;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class SolutionsResource {
+    private static final String NDJSON = "application/x-ndjson";
+
     @Inject
     SolutionsService solutionsService;
 
-    @Operation(description = "Gets all solutions.",
+    @Operation(description = "Gets all solutions. The list is paged by id, at most limit (100 by default, 1000 at most) " +
+            "items are returned and the next page is requested with after set to the returned nextCursor.",
             summary = "Get all solutions.")
-    @APIResponse(
-            responseCode = "200",
-            description = "All solutions.",
-            content = @Content(schema = @Schema(implementation = ProblemSolutionDTO.class, type = SchemaType.ARRAY))
-    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Page of all solutions."
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Limit was out of range."
+            )
+    })
     @GET
-    public List<ProblemSolutionDTO> getSolutions() {
-        return solutionsService.getSolutions();
+    public PageDTO<ProblemSolutionDTO> getSolutions(@QueryParam("after") @DefaultValue("0") long after,
+            @QueryParam("limit") @DefaultValue("100") int limit) {
+        try {
+            return solutionsService.getSolutions(after, limit);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage()).build());
+        }
     }
 
-    @Operation(description = "Gets solutions by desired user.",
+    @Operation(description = "Gets solutions by desired user. The list is paged by id, at most limit (100 by default, 1000 at most) " +
+            "items are returned and the next page is requested with after set to the returned nextCursor.",
             summary = "Get solutions by desired user.")
-    @APIResponse(
-            responseCode = "200",
-            description = "Solutions by the desired user.",
-            content = @Content(schema = @Schema(implementation = ProblemSolutionDTO.class, type = SchemaType.ARRAY))
-    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Page of solutions by the desired user."
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Limit was out of range."
+            )
+    })
     @GET
     @Path("solver/{solverUsername}")
-    public List<ProblemSolutionDTO> getSolutionsByUser(@PathParam("solverUsername") String solverUsername) {
-        return solutionsService.getSolutionsByUser(solverUsername);
+    public PageDTO<ProblemSolutionDTO> getSolutionsByUser(@PathParam("solverUsername") String solverUsername,
+            @QueryParam("after") @DefaultValue("0") long after,
+            @QueryParam("limit") @DefaultValue("100") int limit) {
+        try {
+            return solutionsService.getSolutionsByUser(solverUsername, after, limit);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage()).build());
+        }
     }
 
-    @Operation(description = "Gets solutions to the problem with the given id.",
+    @Operation(description = "Gets solutions to the problem with the given id. The list is paged by id, at most limit (100 by default, 1000 at most) " +
+            "items are returned and the next page is requested with after set to the returned nextCursor.",
             summary = "Get solutions to the problem with the given id.")
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Page of solutions to the problem with the given id."
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Limit was out of range."
+            )
+    })
+    @GET
+    @Path("problem/{problemId}")
+    public PageDTO<ProblemSolutionDTO> getSolutionsForProblem(@PathParam("problemId") Integer problemId,
+            @QueryParam("after") @DefaultValue("0") long after,
+            @QueryParam("limit") @DefaultValue("100") int limit) {
+        try {
+            return solutionsService.getSolutionsForProblem(problemId, after, limit);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage()).build());
+        }
+    }
+
+    @Operation(description = "Exports all solutions as NDJSON, one solution per line in the same format as in the listings, " +
+            "ordered by id. The solutions are streamed as they are read from the database, for offline analysis of the whole corpus.",
+            summary = "Export all solutions.")
     @APIResponse(
             responseCode = "200",
-            description = "Solutions to the problem with the given id.",
-            content = @Content(schema = @Schema(implementation = ProblemSolutionDTO.class, type = SchemaType.ARRAY))
+            description = "All solutions, one per line."
     )
+    @Path("export")
     @GET
-    @Path("problem/{problemId}")
-    public List<ProblemSolutionDTO> getSolutionsForProblem(@PathParam("problemId") Integer problemId) {
-        return solutionsService.getSolutionsForProblem(problemId);
+    @Produces(NDJSON)
+    public StreamingOutput exportSolutions() {
+        return solutionsService::exportSolutions;
     }
 
     @Operation(description = "Adds a new problem solution. Solution is represented as an array of grid " +
@@ -0,0 +1,104 @@
+package lightsout.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lightsout.utilities.solver.Solver;
+import lightsout.utilities.solver.UnsolvableException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Solver recording every solve, including the ones of {@link #solveAll(int[][])}, in the meter registry:
+ * <ul>
+ *     <li>lightsout.solver.solve, time of every solve,</li>
+ *     <li>lightsout.solver.unsolvable, number of unsolvable problems, tagged with the stage that found them,
+ *     "check" for {@link #isSolvable(int[])} and "solve" for the solver itself,</li>
+ *     <li>lightsout.solver.nullity, number of free parameters of the solved systems,</li>
+ *     <li>lightsout.solver.solution.length, number of presses of the solutions,</li>
+ * </ul>
+ * all tagged with the size of the grid. The meters are registered once per size and reused.
+ */
+class MeteredSolver extends Solver {
+    private final MeterRegistry registry;
+    private final Map<Integer, Meters> meters = new ConcurrentHashMap<>();
+
+    MeteredSolver(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Problems of incorrect length are rejected before anything is recorded.
+     */
+    @Override
+    public int[] solve(int[] problem) throws UnsolvableException {
+        int n = (int) Math.round(Math.sqrt(problem.length));
+        Meters sizeMeters = getMeters(n);
+        Timer.Sample sample = Timer.start(registry);
+        int[] solution;
+        try {
+            solution = super.solve(problem);
+        } catch (UnsolvableException e) {
+            sample.stop(sizeMeters.solveTimer);
+            sizeMeters.unsolvableCounter.increment();
+            throw e;
+        }
+        sample.stop(sizeMeters.solveTimer);
+        sizeMeters.nullitySummary.record(getNullity(n));
+        sizeMeters.solutionLengthSummary.record(solution.length);
+        return solution;
+    }
+
+    @Override
+    public boolean isSolvable(int[] problem) {
+        boolean solvable = super.isSolvable(problem);
+        if (!solvable) {
+            getMeters((int) Math.round(Math.sqrt(problem.length))).rejectedCounter.increment();
+        }
+        return solvable;
+    }
+
+    private Meters getMeters(int n) {
+        return meters.computeIfAbsent(n, size -> new Meters(registry, Integer.toString(size)));
+    }
+
+    /**
+     * Meters of one grid size.
+     */
+    private static final class Meters {
+        private final Timer solveTimer;
+        private final Counter unsolvableCounter;
+        private final Counter rejectedCounter;
+        private final DistributionSummary nullitySummary;
+        private final DistributionSummary solutionLengthSummary;
+
+        Meters(MeterRegistry registry, String size) {
+            solveTimer = Timer.builder("lightsout.solver.solve")
+                    .description("Time to solve a problem, solvable or not.")
+                    .tag("size", size)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            unsolvableCounter = unsolvableCounter(registry, size, "solve");
+            rejectedCounter = unsolvableCounter(registry, size, "check");
+            nullitySummary = DistributionSummary.builder("lightsout.solver.nullity")
+                    .description("Number of free parameters of the solved system.")
+                    .tag("size", size)
+                    .register(registry);
+            solutionLengthSummary = DistributionSummary.builder("lightsout.solver.solution.length")
+                    .description("Number of presses of the solution.")
+                    .tag("size", size)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        private static Counter unsolvableCounter(MeterRegistry registry, String size, String stage) {
+            return Counter.builder("lightsout.solver.unsolvable")
+                    .description("Number of unsolvable problems.")
+                    .tag("size", size)
+                    .tag("stage", stage)
+                    .register(registry);
+        }
+    }
+}
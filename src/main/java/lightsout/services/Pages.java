@@ -0,0 +1,42 @@
+package lightsout.services;
+
+import lightsout.dtos.PageDTO;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for keyset pagination. A page is read as the rows with id greater than the cursor, ordered by id,
+ * with one row more than the limit, so the extra row tells whether there is a next page.
+ */
+final class Pages {
+    static final int MAX_LIMIT = 1000;
+
+    private Pages() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the limit is not between 1 and {@link #MAX_LIMIT}
+     */
+    static void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT + " (both inclusive).");
+        }
+    }
+
+    /**
+     * @param rows  at most limit + 1 rows, ordered by id
+     * @param limit page size
+     * @param id    id of a row
+     * @param toDTO maps a row to the returned item
+     */
+    static <R, T> PageDTO<T> toPage(List<R> rows, int limit, Function<R, Long> id, Function<R, T> toDTO) {
+        Long nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = id.apply(rows.get(limit - 1));
+        }
+        return new PageDTO<>(rows.stream().map(toDTO).collect(Collectors.toList()), nextCursor);
+    }
+}
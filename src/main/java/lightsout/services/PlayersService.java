@@ -1,15 +1,15 @@
 package lightsout.services;
 
+import lightsout.dtos.PageDTO;
 import lightsout.dtos.PlayerDTO;
 import lightsout.models.Player;
+import org.hibernate.Session;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
-import javax.persistence.Query;
 import javax.transaction.Transactional;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service for storing and retrieving players.
@@ -20,13 +20,18 @@ public class PlayersService {
     EntityManager em;
 
     /**
-     * @return all players
+     * @param after id of the last player on the previous page, 0 for the first page
+     * @param limit maximum number of players on the page
+     * @return page of players with id greater than after
+     * @throws IllegalArgumentException if the limit is out of range
      */
-    public List<PlayerDTO> getPlayers() {
-        Query query = em.createQuery("SELECT p FROM Player p", Player.class);
-        return ((List<Player>) query.getResultList()).stream()
-                .map(p -> new PlayerDTO(p.getUsername(), p.getAge()))
-                .collect(Collectors.toList());
+    public PageDTO<PlayerDTO> getPlayers(long after, int limit) {
+        Pages.validateLimit(limit);
+        List<Player> players = em.createQuery("SELECT p FROM Player p WHERE p.id > ?1 ORDER BY p.id", Player.class)
+                .setParameter(1, after)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        return Pages.toPage(players, limit, Player::getId, p -> new PlayerDTO(p.getUsername(), p.getAge()));
     }
 
     /**
@@ -34,10 +39,8 @@ public class PlayersService {
      * @return player with given username or null if it doesn't exist
      */
     public PlayerDTO getPlayerWithUsername(String username) {
-        Query query = em.createQuery("SELECT p FROM Player p WHERE p.username = ?1");
-        query.setParameter(1, username);
-        return ((List<Player>) query.getResultList()).stream().map(p -> new PlayerDTO(p.getUsername(), p.getAge()))
-                .findFirst().orElse(null);
+        Player player = em.unwrap(Session.class).bySimpleNaturalId(Player.class).load(username);
+        return player == null ? null : new PlayerDTO(player.getUsername(), player.getAge());
     }
 
     /**
@@ -79,8 +82,9 @@ public class PlayersService {
      */
     @Transactional
     public void removePlayer(String username) {
-        Query query = em.createQuery("SELECT p FROM Player p WHERE p.username = ?1");
-        query.setParameter(1, username);
-        ((List<Player>) query.getResultList()).stream().findFirst().ifPresent(storedPLayer -> em.remove(storedPLayer));
+        Player storedPlayer = em.unwrap(Session.class).bySimpleNaturalId(Player.class).load(username);
+        if (storedPlayer != null) {
+            em.remove(storedPlayer);
+        }
     }
 }
@@ -1,106 +1,490 @@
 package lightsout.services;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import lightsout.dtos.GeneratedProblemDTO;
+import lightsout.dtos.PageDTO;
+import lightsout.dtos.ProblemBatchResultDTO;
 import lightsout.dtos.ProblemDTO;
+import lightsout.dtos.ProblemStatusDTO;
+import lightsout.models.Board;
 import lightsout.models.Player;
 import lightsout.models.Problem;
+import lightsout.models.ProblemStatus;
+import lightsout.utilities.solver.CanonicalBoard;
+import lightsout.utilities.solver.ProblemGenerator;
+import lightsout.utilities.solver.SolutionCache;
 import lightsout.utilities.solver.Solver;
 import lightsout.utilities.solver.UnsolvableException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
 import org.jboss.logging.Logger;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
+import javax.json.bind.Jsonb;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import javax.transaction.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for storing and retrieving lights out problems.
  */
 @ApplicationScoped
 public class ProblemsService {
+    private static final int MIN_GRID_SIZE = 3;
+    /**
+     * Problems are only listed once they are known to be solvable.
+     */
+    private static final String IS_SOLVABLE = "p.status = lightsout.models.ProblemStatus.SOLVABLE";
+    /**
+     * Number of problems read at once when going through the whole table.
+     */
+    private static final int BATCH_SIZE = 500;
+    /**
+     * Largest number of problems generated at once.
+     */
+    private static final int MAX_GENERATED_PROBLEMS = 1000;
+
     @Inject
     EntityManager em;
 
-    private final Solver solver = new Solver();
+    @Inject
+    Jsonb jsonb;
+
+    @ConfigProperty(name = "lightsout.grid.max-size", defaultValue = "200")
+    int maxGridSize;
+
+    @ConfigProperty(name = "lightsout.solution-cache.max-fields", defaultValue = "2560000")
+    long solutionCacheMaxFields;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Solver solver;
+    private SolutionCache solutionCache;
+    private ProblemGenerator problemGenerator;
+
+    @PostConstruct
+    void createSolver() {
+        solver = new MeteredSolver(registry);
+        solutionCache = new SolutionCache(solver, solutionCacheMaxFields);
+        problemGenerator = new ProblemGenerator(solver);
+        FunctionCounter.builder("lightsout.solution.cache.requests", solutionCache, SolutionCache::getHits)
+                .description("Number of solution cache lookups.")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("lightsout.solution.cache.requests", solutionCache, SolutionCache::getMisses)
+                .description("Number of solution cache lookups.")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("lightsout.solution.cache.evictions", solutionCache, SolutionCache::getEvictions)
+                .description("Number of grids evicted from the solution cache.")
+                .register(registry);
+        Gauge.builder("lightsout.solution.cache.size", solutionCache, SolutionCache::size)
+                .description("Number of grids in the solution cache.")
+                .register(registry);
+        Gauge.builder("lightsout.solution.cache.fields", solutionCache, SolutionCache::weight)
+                .description("Total number of fields of the grids in the solution cache.")
+                .register(registry);
+    }
+
+    void precomputeSolver(@Observes StartupEvent event) {
+        for (int n = MIN_GRID_SIZE; n <= Math.min(maxGridSize, Solver.MAX_MATRIX_STRATEGY_SIZE); n++) {
+            solver.precompute(n);
+        }
+    }
 
     /**
-     * @return all problems
+     * Problems stored before the canonical key was introduced don't have one, it is computed here in batches.
      */
-    public List<ProblemDTO> getProblems() {
-        Query query = em.createQuery("SELECT p FROM Problem p", Problem.class);
-        return ((List<Problem>) query.getResultList()).stream()
-                .map(p -> new ProblemDTO(p.getId(), vectorToGrid(p.getGrid()), p.getCreatedBy().getUsername()))
-                .collect(Collectors.toList());
+    @Transactional
+    void fillMissingCanonicalKeys(@Observes StartupEvent event) {
+        int filled = 0;
+        List<Problem> problems;
+        do {
+            problems = em.createQuery("SELECT p FROM Problem p WHERE p.canonicalKey IS NULL", Problem.class)
+                    .setMaxResults(BATCH_SIZE)
+                    .getResultList();
+            for (Problem problem : problems) {
+                problem.setCanonicalKey(CanonicalBoard.of(problem.getGrid().toVector()).getKey());
+            }
+            filled += problems.size();
+            em.flush();
+            em.clear();
+        } while (!problems.isEmpty());
+        if (filled > 0) {
+            Log.log(Logger.Level.INFO, "Canonical keys were filled in for " + filled + " problems.");
+        }
+    }
+
+    /**
+     * @param after id of the last problem on the previous page, 0 for the first page
+     * @param limit maximum number of problems on the page
+     * @return page of problems with id greater than after
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    public PageDTO<ProblemDTO> getProblems(long after, int limit) {
+        Pages.validateLimit(limit);
+        List<Problem> problems = em.createQuery("SELECT p FROM Problem p JOIN FETCH p.createdBy WHERE " + IS_SOLVABLE + " AND p.id > ?1 ORDER BY p.id", Problem.class)
+                .setParameter(1, after)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        return Pages.toPage(problems, limit, Problem::getId, this::toProblemDTO);
     }
 
     /**
      * @param username creator's username
-     * @return all problems created by creator with given username
+     * @param after    id of the last problem on the previous page, 0 for the first page
+     * @param limit    maximum number of problems on the page
+     * @return page of problems created by creator with given username, with id greater than after
+     * @throws IllegalArgumentException if the limit is out of range
      */
-    public List<ProblemDTO> getProblemsCreatedBy(String username) {
-        Query query = em.createQuery("SELECT p FROM Problem p WHERE p.createdBy.username = ?1", Problem.class);
-        query.setParameter(1, username);
-        return ((List<Problem>) query.getResultList()).stream()
-                .map(p -> new ProblemDTO(p.getId(), vectorToGrid(p.getGrid()), p.getCreatedBy().getUsername()))
-                .collect(Collectors.toList());
+    public PageDTO<ProblemDTO> getProblemsCreatedBy(String username, long after, int limit) {
+        Pages.validateLimit(limit);
+        List<Problem> problems = em.createQuery("SELECT p FROM Problem p JOIN FETCH p.createdBy c"
+                        + " WHERE " + IS_SOLVABLE + " AND c.username = ?1 AND p.id > ?2 ORDER BY p.id", Problem.class)
+                .setParameter(1, username)
+                .setParameter(2, after)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        return Pages.toPage(problems, limit, Problem::getId, this::toProblemDTO);
+    }
+
+    /**
+     * Writes all problems to the output as NDJSON, one problem per line, ordered by id.
+     * The problems are read from a forward-only cursor and the persistence context is cleared every
+     * {@link #BATCH_SIZE} problems, so memory use does not grow with the number of problems.
+     *
+     * @param output stream to write to, it is flushed but not closed
+     * @throws IOException if writing to the output fails
+     */
+    @Transactional
+    public void exportProblems(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try (Stream<Problem> problems = em.createQuery("SELECT p FROM Problem p JOIN FETCH p.createdBy WHERE " + IS_SOLVABLE + " ORDER BY p.id", Problem.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, BATCH_SIZE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()) {
+            int count = 0;
+            for (Problem problem : (Iterable<Problem>) problems::iterator) {
+                writer.write(jsonb.toJson(toProblemDTO(problem)));
+                writer.write('\n');
+                if (++count % BATCH_SIZE == 0) {
+                    em.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
     }
 
     /**
      * @param id problem id
-     * @return problem with given id or null if the problem wasn't found
+     * @return problem with given id or null if the problem wasn't found or isn't solvable
      */
     public ProblemDTO getProblemById(long id) {
-        Query query = em.createQuery("SELECT p FROM Problem p WHERE p.id = ?1", Problem.class);
-        query.setParameter(1, id);
-        List<Problem> resultList = query.getResultList();
-        return resultList.stream().map(p -> new ProblemDTO(p.getId(), vectorToGrid(p.getGrid()), p.getCreatedBy().getUsername()))
-                .findFirst().orElse(null);
+        Problem problem = em.find(Problem.class, id);
+        if (problem == null || problem.getStatus() != ProblemStatus.SOLVABLE) {
+            return null;
+        }
+        return toProblemDTO(problem);
     }
 
     /**
-     * Adds a new problem to the database.
+     * @param id problem id
+     * @return solution of the problem with given id with the least number of presses (see {@link Solver#isOptimal(int)}),
+     * as the field numbers to press,
+     * or null if the problem wasn't found or isn't solvable
+     */
+    public int[] getSolution(long id) {
+        Problem problem = em.find(Problem.class, id);
+        if (problem == null || problem.getStatus() != ProblemStatus.SOLVABLE) {
+            return null;
+        }
+        if (problem.getSolution() != null) {
+            return problem.getSolution();
+        }
+        try {
+            return solutionCache.solve(problem.getGrid().toVector());
+        } catch (UnsolvableException e) {
+            throw new IllegalStateException("Stored problem " + id + " is unsolvable.", e);
+        }
+    }
+
+    /**
+     * Adds a new problem to the database. If an equivalent problem, the same grid or one of its rotations or
+     * reflections, is already stored, nothing is added and the stored problem is returned instead.
      *
      * @param grid              the problem grid
      * @param createdByUsername username of the creator of the problem
-     * @return persisted problem
-     * @throws UnsolvableException      if the problem is unsolvable
-     * @throws IllegalArgumentException if the grid is not made of 0s and 1s,  is not a square, or user doesn't exist
+     * @return persisted problem, or the stored equivalent problem, which is solved first if it is still pending
+     * @throws UnsolvableException      if the problem (or the stored equivalent problem) is unsolvable
+     * @throws IllegalArgumentException if the grid is missing, too small or too large,
+     *                                  or user doesn't exist
      */
     @Transactional
-    public ProblemDTO addProblem(List<List<Integer>> grid, String createdByUsername) throws UnsolvableException {
-        if (!grid.stream().allMatch(row -> row.stream().allMatch(el -> el.equals(0) || el.equals(1)))) {
-            throw new IllegalArgumentException("Grid must be made of 0s and 1s only.");
-        }
-        int n = grid.get(0).size();
-        if (!grid.stream().allMatch(row -> row.size() == n) || n < 3 || n > 8 || n != grid.size()) {
-            throw new IllegalArgumentException("Grid must be of square size with size between 3 and 8 (both inclusive).");
+    public ProblemDTO addProblem(Board grid, String createdByUsername) throws UnsolvableException {
+        validateGrid(grid);
+        int[] vectorizedGrid = grid.toVector();
+        if (!solver.isSolvable(vectorizedGrid)) {
+            throw new UnsolvableException();
         }
         Player player = getPlayerByUsername(createdByUsername);
         if (player == null) {
             throw new IllegalArgumentException("Player with username does not exist.");
         }
 
-        int[] vectorizedGrid = gridToVector(grid);
-        long startTimeInNanoSeconds = System.nanoTime();
-        int[] solution = solver.solve(vectorizedGrid);
-        long duration = System.nanoTime() - startTimeInNanoSeconds;
-        double durationInMilliseconds = ((double) duration) / 1000000;
-        Log.log(Logger.Level.INFO, "The problem was solved in " + durationInMilliseconds + " ms with " + solution.length + " steps.");
+        CanonicalBoard board = CanonicalBoard.of(vectorizedGrid);
+        Problem equivalentProblem = findEquivalentProblems(List.of(board)).get(board);
+        if (equivalentProblem != null) {
+            if (equivalentProblem.getStatus() == ProblemStatus.PENDING) {
+                // solved here rather than waiting for its job, which may have been dropped
+                saveSolveResult(equivalentProblem, solutionCache.solve(equivalentProblem.getGrid().toVector()));
+            }
+            if (equivalentProblem.getStatus() == ProblemStatus.UNSOLVABLE) {
+                throw new UnsolvableException();
+            }
+            return toProblemDTO(equivalentProblem);
+        }
 
-        Problem problem = new Problem();
-        problem.setGrid(Arrays.stream(vectorizedGrid).boxed().collect(Collectors.toList()));
-        problem.setCreatedBy(player);
+        int[] solution = solutionCache.solve(board);
+        Log.debugf("The problem was solved with %d steps.", solution.length);
+
+        Problem problem = newProblem(grid, board, player);
+        problem.setStatus(ProblemStatus.SOLVABLE);
+        problem.setSolution(solution);
 
         em.persist(problem);
         em.flush();
         return new ProblemDTO(problem.getId(), grid, problem.getCreatedBy().getUsername());
     }
 
+    /**
+     * Adds many problems to the database in one transaction. The problems are solved in parallel
+     * and only the solvable ones are persisted. Problems equivalent to a stored problem, or to an earlier problem
+     * in the list, are not persisted again, like in {@link #addProblem(Board, String)}. Stored equivalent problems
+     * that are still pending are solved with the rest of the batch.
+     *
+     * @param problems problems to add, the ids are ignored
+     * @return persisted (or stored equivalent) problems and the positions of the unsolvable problems in the given list
+     * @throws IllegalArgumentException if any grid is missing, too small or too large,
+     *                                  or any creator doesn't exist. Nothing is persisted in that case.
+     */
+    @Transactional
+    public ProblemBatchResultDTO addProblems(List<ProblemDTO> problems) {
+        Map<String, Player> players = getPlayersByUsername(problems.stream()
+                .map(ProblemDTO::getCreatedByUsername).distinct().collect(Collectors.toList()));
+        int[][] vectorizedGrids = new int[problems.size()][];
+        CanonicalBoard[] boards = new CanonicalBoard[problems.size()];
+        for (int i = 0; i < problems.size(); i++) {
+            ProblemDTO problemDTO = problems.get(i);
+            validateGrid(problemDTO.getGrid());
+            if (!players.containsKey(problemDTO.getCreatedByUsername())) {
+                throw new IllegalArgumentException("Player with username does not exist.");
+            }
+            vectorizedGrids[i] = problemDTO.getGrid().toVector();
+            boards[i] = CanonicalBoard.of(vectorizedGrids[i]);
+        }
+
+        Map<CanonicalBoard, Problem> storedProblems = findEquivalentProblems(Arrays.asList(boards));
+        List<Integer> newIndices = new ArrayList<>();
+        for (int i = 0; i < problems.size(); i++) {
+            if (!storedProblems.containsKey(boards[i])) {
+                newIndices.add(i);
+            }
+        }
+        // pending equivalents, whose jobs may have been dropped, are solved with the new problems, like in addProblem
+        List<Problem> pendingProblems = storedProblems.values().stream()
+                .filter(problem -> problem.getStatus() == ProblemStatus.PENDING)
+                .distinct()
+                .collect(Collectors.toList());
+        int[][] newGrids = new int[newIndices.size() + pendingProblems.size()][];
+        for (int k = 0; k < newIndices.size(); k++) {
+            newGrids[k] = vectorizedGrids[newIndices.get(k)];
+        }
+        for (int k = 0; k < pendingProblems.size(); k++) {
+            newGrids[newIndices.size() + k] = pendingProblems.get(k).getGrid().toVector();
+        }
+
+        int[][] solutions = solutionCache.solveAll(newGrids);
+        Log.debugf("%d problems were solved.", newGrids.length);
+
+        for (int k = 0; k < pendingProblems.size(); k++) {
+            saveSolveResult(pendingProblems.get(k), solutions[newIndices.size() + k]);
+        }
+        for (int k = 0; k < newIndices.size(); k++) {
+            int i = newIndices.get(k);
+            if (solutions[k] != null && !storedProblems.containsKey(boards[i])) {
+                Problem problem = newProblem(problems.get(i).getGrid(), boards[i],
+                        players.get(problems.get(i).getCreatedByUsername()));
+                problem.setStatus(ProblemStatus.SOLVABLE);
+                problem.setSolution(solutions[k]);
+                em.persist(problem);
+                storedProblems.put(boards[i], problem);
+            }
+        }
+        em.flush();
+
+        List<ProblemDTO> addedProblems = new ArrayList<>();
+        List<Integer> unsolvableIndices = new ArrayList<>();
+        for (int i = 0; i < problems.size(); i++) {
+            Problem problem = storedProblems.get(boards[i]);
+            if (problem == null || problem.getStatus() == ProblemStatus.UNSOLVABLE) {
+                unsolvableIndices.add(i);
+            } else {
+                addedProblems.add(toProblemDTO(problem));
+            }
+        }
+        return new ProblemBatchResultDTO(addedProblems, unsolvableIndices);
+    }
+
+    /**
+     * Stores a new problem without solving it, so it can be solved later outside of the transaction,
+     * see {@link #solve(Board)} and {@link #saveSolveResult(long, int[])}.
+     * If an equivalent problem is already stored, nothing is added and the status of the stored problem is returned.
+     *
+     * @param grid              the problem grid
+     * @param createdByUsername username of the creator of the problem
+     * @return status of the persisted problem, which is pending, or of the stored equivalent problem
+     * @throws UnsolvableException      if the problem is unsolvable, which is checked without solving it
+     * @throws IllegalArgumentException if the grid is missing, too small or too large,
+     *                                  or user doesn't exist
+     */
+    @Transactional
+    public ProblemStatusDTO addPendingProblem(Board grid, String createdByUsername) throws UnsolvableException {
+        validateGrid(grid);
+        int[] vectorizedGrid = grid.toVector();
+        if (!solver.isSolvable(vectorizedGrid)) {
+            throw new UnsolvableException();
+        }
+        Player player = getPlayerByUsername(createdByUsername);
+        if (player == null) {
+            throw new IllegalArgumentException("Player with username does not exist.");
+        }
+
+        CanonicalBoard board = CanonicalBoard.of(vectorizedGrid);
+        Problem problem = findEquivalentProblems(List.of(board)).get(board);
+        if (problem == null) {
+            problem = newProblem(grid, board, player);
+            problem.setStatus(ProblemStatus.PENDING);
+            em.persist(problem);
+            em.flush();
+        }
+        return toProblemStatusDTO(problem);
+    }
+
+    /**
+     * Solves the grid through the solution cache, without touching the database.
+     *
+     * @param grid the problem grid, already validated
+     * @return solution to the problem
+     * @throws UnsolvableException if the problem is unsolvable
+     */
+    public int[] solve(Board grid) throws UnsolvableException {
+        return solutionCache.solve(grid.toVector());
+    }
+
+    /**
+     * Stores the result of solving a pending problem.
+     *
+     * @param id       id of the pending problem
+     * @param solution solution to the problem, or null if it is unsolvable
+     */
+    @Transactional
+    public void saveSolveResult(long id, int[] solution) {
+        Problem problem = em.find(Problem.class, id);
+        if (problem == null) {
+            return; // removed while it was being solved
+        }
+        saveSolveResult(problem, solution);
+    }
+
+    /**
+     * @param id problem id
+     * @return grid of the problem with given id, or null if the problem wasn't found or isn't pending anymore
+     */
+    @Transactional
+    public Board getPendingGrid(long id) {
+        Problem problem = em.find(Problem.class, id);
+        if (problem == null || problem.getStatus() != ProblemStatus.PENDING) {
+            return null;
+        }
+        return problem.getGrid();
+    }
+
+    /**
+     * @param limit maximum number of ids
+     * @return ids of the oldest pending problems, ordered by id
+     */
+    @Transactional
+    public List<Long> getPendingProblemIds(int limit) {
+        return em.createQuery("SELECT p.id FROM Problem p WHERE p.status = lightsout.models.ProblemStatus.PENDING ORDER BY p.id", Long.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * @param id problem id
+     * @return status of the problem with given id, with the solution once it is solved, or null if the problem wasn't found
+     */
+    public ProblemStatusDTO getProblemStatus(long id) {
+        Problem problem = em.find(Problem.class, id);
+        if (problem == null) {
+            return null;
+        }
+        if (problem.getStatus() == ProblemStatus.SOLVABLE && problem.getSolution() == null) {
+            return new ProblemStatusDTO(id, ProblemStatus.SOLVABLE, getSolution(id));
+        }
+        return toProblemStatusDTO(problem);
+    }
+
+    /**
+     * Generates random problems, which are solvable by construction. Nothing is persisted.
+     *
+     * @param n          size of the nxn grids
+     * @param count      number of problems
+     * @param minPresses least number of presses in the optimal solution of every problem
+     * @return generated problems with the number of presses in their optimal solutions
+     * @throws IllegalArgumentException if n or count is out of range, minPresses is larger than n^2 or not supported
+     *                                  for n, or problems with minPresses presses are too rare to be found
+     */
+    public List<GeneratedProblemDTO> generateProblems(int n, int count, int minPresses) {
+        if (n < MIN_GRID_SIZE || n > maxGridSize) {
+            throw new IllegalArgumentException("Grid size must be between " + MIN_GRID_SIZE
+                    + " and " + maxGridSize + " (both inclusive).");
+        }
+        if (count < 1 || count > MAX_GENERATED_PROBLEMS) {
+            throw new IllegalArgumentException("Count must be between 1 and " + MAX_GENERATED_PROBLEMS + " (both inclusive).");
+        }
+        return Arrays.stream(problemGenerator.generate(n, count, minPresses, ThreadLocalRandom.current()))
+                .map(problem -> new GeneratedProblemDTO(Board.of(problem.getGrid()), problem.getPresses()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Removes the problem with id.
      * Action is idempotent and gives no feedback on whether anything was removed.
@@ -115,38 +499,70 @@ public class ProblemsService {
         }
     }
 
+    /**
+     * Looks the boards up by their canonical keys and compares the grids, as different boards may share a key.
+     *
+     * @return stored problems equivalent to the given boards, by board
+     */
+    private Map<CanonicalBoard, Problem> findEquivalentProblems(List<CanonicalBoard> boards) {
+        Map<CanonicalBoard, Problem> equivalentProblems = new HashMap<>();
+        if (boards.isEmpty()) {
+            return equivalentProblems;
+        }
+        Set<CanonicalBoard> wanted = new HashSet<>(boards);
+        List<Problem> candidates = em.createQuery("SELECT p FROM Problem p JOIN FETCH p.createdBy"
+                        + " WHERE p.canonicalKey IN ?1 ORDER BY p.id", Problem.class)
+                .setParameter(1, wanted.stream().map(CanonicalBoard::getKey).distinct().collect(Collectors.toList()))
+                .getResultList();
+        for (Problem candidate : candidates) {
+            CanonicalBoard board = CanonicalBoard.of(candidate.getGrid().toVector());
+            if (wanted.contains(board)) {
+                equivalentProblems.putIfAbsent(board, candidate);
+            }
+        }
+        return equivalentProblems;
+    }
+
     private Player getPlayerByUsername(String username) {
-        Query query = em.createQuery("SELECT p FROM Player p WHERE p.username = ?1");
-        query.setParameter(1, username);
+        return em.unwrap(Session.class).bySimpleNaturalId(Player.class).load(username);
+    }
+
+    private Map<String, Player> getPlayersByUsername(List<String> usernames) {
+        Query query = em.createQuery("SELECT p FROM Player p WHERE p.username IN ?1");
+        query.setParameter(1, usernames);
         return ((List<Player>) query.getResultList()).stream()
-                .findFirst().orElse(null);
+                .collect(Collectors.toMap(Player::getUsername, Function.identity()));
     }
 
-    private int[] gridToVector(List<List<Integer>> grid) {
-        int n = grid.get(0).size();
-        int m = n * n;
-        int[] vectorized = new int[m];
-        for (int i = 0; i < m; i++) {
-            vectorized[i] = grid.get(i / n).get(i % n);
+    private void validateGrid(Board grid) {
+        if (grid == null) {
+            throw new IllegalArgumentException("Grid must not be empty.");
+        }
+        if (grid.getSize() < MIN_GRID_SIZE || grid.getSize() > maxGridSize) {
+            throw new IllegalArgumentException("Grid must be of square size with size between " + MIN_GRID_SIZE
+                    + " and " + maxGridSize + " (both inclusive).");
         }
-        return vectorized;
     }
 
-    private List<List<Integer>> vectorToGrid(int[] vector) {
-        int m = vector.length;
-        int n = (int) Math.floor(Math.sqrt(m));
-        List<List<Integer>> grid = new ArrayList<>();
-        for (int i = 0; i < n; i++) {
-            List<Integer> gridRow = new ArrayList<>();
-            for (int j = 0; j < n; j++) {
-                gridRow.add(vector[i * n + j]);
-            }
-            grid.add(gridRow);
-        }
-        return grid;
+    private void saveSolveResult(Problem problem, int[] solution) {
+        problem.setStatus(solution == null ? ProblemStatus.UNSOLVABLE : ProblemStatus.SOLVABLE);
+        problem.setSolution(solution);
+    }
+
+    private Problem newProblem(Board grid, CanonicalBoard board, Player createdBy) {
+        Problem problem = new Problem();
+        problem.setGrid(grid);
+        problem.setSize(board.getSize());
+        problem.setCanonicalKey(board.getKey());
+        problem.setCreatedBy(createdBy);
+        return problem;
+    }
+
+    private ProblemStatusDTO toProblemStatusDTO(Problem problem) {
+        return new ProblemStatusDTO(problem.getId(), problem.getStatus(), problem.getSolution());
     }
 
-    private List<List<Integer>> vectorToGrid(List<Integer> vector) {
-        return vectorToGrid(vector.stream().mapToInt(i -> i).toArray());
+    private ProblemDTO toProblemDTO(Problem problem) {
+        return new ProblemDTO(problem.getId(), problem.getGrid(), problem.getCreatedBy().getUsername());
     }
 }
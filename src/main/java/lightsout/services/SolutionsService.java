@@ -1,65 +1,127 @@
 package lightsout.services;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lightsout.dtos.PageDTO;
 import lightsout.dtos.ProblemSolutionDTO;
 import lightsout.models.Player;
 import lightsout.models.Problem;
 import lightsout.models.Solution;
-import lightsout.models.SolutionStep;
 import lightsout.utilities.solutionchecker.NotASolutionException;
 import lightsout.utilities.solutionchecker.SolutionChecker;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.json.bind.Jsonb;
 import javax.persistence.EntityManager;
-import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for storing and retrieving lights out solutions by players.
  */
 @ApplicationScoped
 public class SolutionsService {
+    /**
+     * Selects only the columns of the DTO, so a listing is a single statement over Solution and Player.
+     */
+    private static final String SELECT_SOLUTION_ROWS = "SELECT s.id, s.problem.id, solver.username, s.presses"
+            + " FROM Solution s JOIN s.solvedBy solver WHERE s.id > :after";
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     @Inject
     EntityManager em;
 
+    @Inject
+    Jsonb jsonb;
+
+    @Inject
+    MeterRegistry registry;
+
     private final SolutionChecker solutionChecker = new SolutionChecker();
+    private Timer correctCheckTimer;
+    private Timer incorrectCheckTimer;
+
+    @PostConstruct
+    void createTimers() {
+        correctCheckTimer = checkTimer("correct");
+        incorrectCheckTimer = checkTimer("incorrect");
+    }
 
     /**
-     * @return all solutions
+     * @param after id of the last solution on the previous page, 0 for the first page
+     * @param limit maximum number of solutions on the page
+     * @return page of solutions with id greater than after
+     * @throws IllegalArgumentException if the limit is out of range
      */
-    public List<ProblemSolutionDTO> getSolutions() {
-        Query query = em.createQuery("SELECT step FROM SolutionStep step", SolutionStep.class);
-        return solutionStepListToProblemSolutionDTOList((List<SolutionStep>) query.getResultList());
-
+    public PageDTO<ProblemSolutionDTO> getSolutions(long after, int limit) {
+        return getSolutionsPage(em.createQuery(SELECT_SOLUTION_ROWS + " ORDER BY s.id", Object[].class), after, limit);
     }
 
     /**
-     * Get all solutions from a user.
+     * Get solutions from a user.
      *
      * @param solverUsername id of the desired user
-     * @return List of all solutions added by desired user
+     * @param after          id of the last solution on the previous page, 0 for the first page
+     * @param limit          maximum number of solutions on the page
+     * @return page of solutions added by desired user, with id greater than after
+     * @throws IllegalArgumentException if the limit is out of range
      */
-    public List<ProblemSolutionDTO> getSolutionsByUser(String solverUsername) {
-        Query query = em.createQuery("SELECT step FROM SolutionStep step WHERE step.solution.solvedBy.username = ?1", SolutionStep.class);
-        query.setParameter(1, solverUsername);
-        return solutionStepListToProblemSolutionDTOList((List<SolutionStep>) query.getResultList());
+    public PageDTO<ProblemSolutionDTO> getSolutionsByUser(String solverUsername, long after, int limit) {
+        return getSolutionsPage(em.createQuery(SELECT_SOLUTION_ROWS + " AND solver.username = :username ORDER BY s.id", Object[].class)
+                .setParameter("username", solverUsername), after, limit);
     }
 
     /**
-     * Get all solutions for a given problem.
+     * Get solutions for a given problem.
      *
      * @param problemId id of the problem
-     * @return List of all solutions
+     * @param after     id of the last solution on the previous page, 0 for the first page
+     * @param limit     maximum number of solutions on the page
+     * @return page of solutions, with id greater than after
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    public PageDTO<ProblemSolutionDTO> getSolutionsForProblem(long problemId, long after, int limit) {
+        return getSolutionsPage(em.createQuery(SELECT_SOLUTION_ROWS + " AND s.problem.id = :problemId ORDER BY s.id", Object[].class)
+                .setParameter("problemId", problemId), after, limit);
+    }
+
+    /**
+     * Writes all solutions to the output as NDJSON, one solution per line, ordered by id.
+     * The solutions are read from a forward-only cursor as plain columns, so no entities pile up
+     * in the persistence context and memory use does not grow with the number of solutions.
+     *
+     * @param output stream to write to, it is flushed but not closed
+     * @throws IOException if writing to the output fails
      */
-    public List<ProblemSolutionDTO> getSolutionsForProblem(long problemId) {
-        Query query = em.createQuery("SELECT step FROM SolutionStep step WHERE step.solution.problem.id=?1", SolutionStep.class);
-        query.setParameter(1, problemId);
-        return solutionStepListToProblemSolutionDTOList((List<SolutionStep>) query.getResultList());
+    @Transactional
+    public void exportSolutions(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try (Stream<Object[]> rows = em.createQuery(SELECT_SOLUTION_ROWS + " ORDER BY s.id", Object[].class)
+                .setParameter("after", 0L)
+                .setHint(QueryHints.HINT_FETCH_SIZE, EXPORT_BATCH_SIZE)
+                .getResultStream()) {
+            int count = 0;
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                writer.write(jsonb.toJson(toProblemSolutionDTO(row)));
+                writer.write('\n');
+                if (++count % EXPORT_BATCH_SIZE == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
     }
 
     /**
@@ -77,51 +139,47 @@ public class SolutionsService {
         if (player == null) {
             throw new IllegalArgumentException("Player with given username doesn't exist.");
         }
-        Problem problem = getProblemById(problemId);
+        Problem problem = em.find(Problem.class, problemId);
         if (problem == null) {
             throw new IllegalArgumentException("Problem with given ID doesn't exist.");
         }
-        solutionChecker.checkSolutionIsCorrect(problem.getGrid().stream().mapToInt(i -> i).toArray(), solution);
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            solutionChecker.checkSolutionIsCorrect(problem.getGrid().toVector(), solution);
+        } catch (NotASolutionException e) {
+            sample.stop(incorrectCheckTimer);
+            throw e;
+        }
+        sample.stop(correctCheckTimer);
 
         Solution solutionEntity = new Solution();
         solutionEntity.setProblem(problem);
         solutionEntity.setSolvedBy(player);
+        solutionEntity.setPresses(solution);
         em.persist(solutionEntity);
-        for (int i = 0; i < solution.length; i++) {
-            SolutionStep solutionStep = new SolutionStep();
-            solutionStep.setSolution(solutionEntity);
-            solutionStep.setStep(solution[i]);
-            solutionStep.setStepNum(i);
-            em.persist(solutionStep);
-        }
     }
 
     private Player getPlayerWithUsername(String username) {
-        Query query = em.createQuery("SELECT p FROM Player p WHERE p.username = ?1");
-        query.setParameter(1, username);
-        return ((List<Player>) query.getResultList()).stream()
-                .findFirst().orElse(null);
+        return em.unwrap(Session.class).bySimpleNaturalId(Player.class).load(username);
     }
 
-    private Problem getProblemById(long id) {
-        Query query = em.createQuery("SELECT p FROM Problem p WHERE p.id = ?1", Problem.class);
-        query.setParameter(1, id);
-        List<Problem> resultList = query.getResultList();
-        return resultList.stream().findFirst().orElse(null);
+    private PageDTO<ProblemSolutionDTO> getSolutionsPage(TypedQuery<Object[]> query, long after, int limit) {
+        Pages.validateLimit(limit);
+        List<Object[]> rows = query.setParameter("after", after)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        return Pages.toPage(rows, limit, row -> (Long) row[0], this::toProblemSolutionDTO);
     }
 
-    private List<ProblemSolutionDTO> solutionStepListToProblemSolutionDTOList(List<SolutionStep> solutionSteps) {
-        Map<Solution, List<SolutionStep>> grouped = solutionSteps.stream()
-                .collect(Collectors.groupingBy(SolutionStep::getSolution));
-        List<ProblemSolutionDTO> solutions = new ArrayList<>();
-        for (Map.Entry<Solution, List<SolutionStep>> entry : grouped.entrySet()) {
-            int[] solutionStepsArr = entry.getValue().stream()
-                    .sorted(Comparator.comparingInt(SolutionStep::getStepNum))
-                    .mapToInt(SolutionStep::getStep).toArray();
-            Solution solutionEntity = entry.getKey();
-            ProblemSolutionDTO dto = new ProblemSolutionDTO(solutionEntity.getProblem().getId(), solutionEntity.getProblem().getCreatedBy().getUsername(), solutionStepsArr);
-            solutions.add(dto);
-        }
-        return solutions;
+    private ProblemSolutionDTO toProblemSolutionDTO(Object[] row) {
+        return new ProblemSolutionDTO((Long) row[1], (String) row[2], (int[]) row[3]);
+    }
+
+    private Timer checkTimer(String outcome) {
+        return Timer.builder("lightsout.checker.check")
+                .description("Time to check a submitted solution.")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
     }
 }
@@ -0,0 +1,171 @@
+package lightsout.services;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import lightsout.dtos.ProblemStatusDTO;
+import lightsout.models.Board;
+import lightsout.models.ProblemStatus;
+import lightsout.utilities.solver.UnsolvableException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Solves problems in the background, so neither the request thread nor a database transaction waits for the solver.
+ * The problem is stored as pending, solved on a bounded pool and the result is written back in a new transaction.
+ * <p>
+ * Jobs still queued or running on shutdown are dropped and their problems stay pending, they are queued again
+ * on the next startup, or as soon as an equivalent problem is added.
+ */
+@ApplicationScoped
+public class SolveJobsService {
+
+    @Inject
+    ProblemsService problemsService;
+
+    @ConfigProperty(name = "lightsout.solve-jobs.threads", defaultValue = "2")
+    int threads;
+
+    @ConfigProperty(name = "lightsout.solve-jobs.queue-size", defaultValue = "100")
+    int queueSize;
+
+    private ExecutorService executor;
+    /**
+     * Permits for the jobs that are running or queued.
+     */
+    Semaphore permits;
+    /**
+     * Ids of the problems that are running or queued, so no problem is queued twice.
+     */
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void createExecutor() {
+        executor = Executors.newFixedThreadPool(threads);
+        permits = new Semaphore(threads + queueSize);
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues the oldest pending problems, whose jobs were dropped on shutdown, as far as the queue allows.
+     */
+    void requeuePendingProblems(@Observes StartupEvent event) {
+        List<Long> ids = problemsService.getPendingProblemIds(threads + queueSize);
+        int requeued = 0;
+        for (long id : ids) {
+            if (!permits.tryAcquire()) {
+                break;
+            }
+            if (queue(id)) {
+                requeued++;
+            }
+        }
+        if (requeued > 0) {
+            Log.infof("%d pending problems were queued to be solved again.", requeued);
+        }
+    }
+
+    /**
+     * Stores the problem as pending and queues it to be solved.
+     * If an equivalent problem is already stored, nothing is stored and the status of the stored problem is returned,
+     * the stored problem is queued again if it is pending and its job was dropped.
+     *
+     * @param grid              the problem grid
+     * @param createdByUsername username of the creator of the problem
+     * @return status of the persisted problem, or of the stored equivalent problem
+     * @throws UnsolvableException        if the problem is unsolvable, nothing is stored then
+     * @throws IllegalArgumentException   if the grid is missing, too small or too large,
+     *                                    or user doesn't exist
+     * @throws RejectedExecutionException if the queue is full, nothing is stored then,
+     *                                    or the service is shutting down, the problem stays pending then
+     */
+    public ProblemStatusDTO addProblem(Board grid, String createdByUsername) throws UnsolvableException {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("Too many problems are waiting to be solved.");
+        }
+        ProblemStatusDTO status;
+        try {
+            status = problemsService.addPendingProblem(grid, createdByUsername);
+        } catch (UnsolvableException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        if (status.getStatus() == ProblemStatus.PENDING) {
+            queue(status.getId());
+        } else {
+            permits.release();
+        }
+        return status;
+    }
+
+    /**
+     * Queues the pending problem, unless it is already queued. Takes over a permit, which is released once the job
+     * is done, or right away if nothing is queued.
+     *
+     * @return whether the problem was queued
+     * @throws RejectedExecutionException if the service is shutting down
+     */
+    private boolean queue(long id) {
+        if (!queued.add(id)) {
+            permits.release();
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    solve(id);
+                } finally {
+                    queued.remove(id);
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(id);
+            permits.release();
+            throw e;
+        }
+        return true;
+    }
+
+    private void solve(long id) {
+        Board grid;
+        try {
+            grid = problemsService.getPendingGrid(id);
+        } catch (RuntimeException e) {
+            Log.errorf(e, "Could not read pending problem %d.", id);
+            return;
+        }
+        if (grid == null) {
+            return; // solved synchronously or removed while it was queued
+        }
+        int[] solution;
+        try {
+            solution = problemsService.solve(grid);
+            Log.debugf("Problem %d was solved with %d steps.", id, solution.length);
+        } catch (UnsolvableException e) {
+            solution = null;
+            Log.debugf("Problem %d is unsolvable.", id);
+        }
+        try {
+            problemsService.saveSolveResult(id, solution);
+        } catch (RuntimeException e) {
+            Log.errorf(e, "Could not save the result of solving problem %d.", id);
+        }
+    }
+
+}
@@ -1,47 +1,158 @@
 package lightsout.utilities.solutionchecker;
 
-import java.util.Arrays;
-
+/**
+ * Simulates the lights out game on a nxn grid.
+ * The grid is kept as a bitboard, field i (numbered by rows) is bit i % 64 of word i / 64.
+ * Grids up to 8x8 fit in a single long, where a press is a single XOR with the precomputed neighbourhood
+ * of the field and the grid is solved when it equals the precomputed solved grid.
+ */
 public class GameSimulator {
-    private int[][] grid;
+    static final int MAX_SINGLE_WORD_SIZE = 8;
+    private static final long[][] NEIGHBOURHOOD_MASKS = new long[MAX_SINGLE_WORD_SIZE + 1][];
+    private static final long[] SOLVED_MASKS = new long[MAX_SINGLE_WORD_SIZE + 1];
+
+    static {
+        for (int n = 1; n <= MAX_SINGLE_WORD_SIZE; n++) {
+            int m = n * n;
+            NEIGHBOURHOOD_MASKS[n] = new long[m];
+            for (int i = 0; i < m; i++) {
+                long[] mask = new long[1];
+                pressMultiWord(mask, n, i);
+                NEIGHBOURHOOD_MASKS[n][i] = mask[0];
+            }
+            SOLVED_MASKS[n] = m == 64 ? -1L : (1L << m) - 1;
+        }
+    }
+
+    private final int n;
+    private final long[] grid;
 
     public GameSimulator(int[] vectorizedGrid) {
+        this.n = gridSize(vectorizedGrid);
+        this.grid = new long[words(n)];
+        load(grid, vectorizedGrid);
+    }
+
+    public void press(int i, int j) {
+        press(grid, n, i * n + j);
+    }
+
+    public boolean isSolved() {
+        return isSolved(grid, n);
+    }
+
+    public void repr() {
+        for (int i = 0; i < n; i++) {
+            StringBuilder row = new StringBuilder("[");
+            for (int j = 0; j < n; j++) {
+                int field = i * n + j;
+                row.append(j == 0 ? "" : ", ").append((grid[field >>> 6] >>> field) & 1);
+            }
+            System.out.println(row.append("]"));
+        }
+    }
+
+    /**
+     * @param vectorizedGrid grid reshaped(by rows) into a vector
+     * @return n, the size of the grid
+     * @throws IllegalArgumentException if the length of the vector is not a perfect square
+     */
+    static int gridSize(int[] vectorizedGrid) {
         int m = vectorizedGrid.length;
         int n = (int) Math.floor(Math.sqrt(m));
-        if (n != Math.sqrt(m)) {
+        if (n * n != m) {
             throw new IllegalArgumentException("Vectorized Grid's length should be a perfect square.");
         }
-        this.grid = new int[n][n];
-        for (int i = 0; i < m; i++) {
-            this.grid[i / n][i % n] = vectorizedGrid[i];
-        }
+        return n;
     }
 
-    public void press(int i, int j) {
-        grid[i][j] = (grid[i][j] + 1) % 2;
-        if (i - 1 >= 0) {
-            grid[i - 1][j] = (grid[i - 1][j] + 1) % 2;
+    /**
+     * @return number of longs needed for the bitboard of a nxn grid
+     */
+    static int words(int n) {
+        return (n * n + 63) >>> 6;
+    }
+
+    /**
+     * Packs a grid of at most 8x8 into a single long.
+     */
+    static long pack(int[] vectorizedGrid) {
+        long grid = 0;
+        for (int i = 0; i < vectorizedGrid.length; i++) {
+            if (vectorizedGrid[i] != 0) {
+                grid |= 1L << i;
+            }
         }
-        if (j - 1 >= 0) {
-            grid[i][j - 1] = (grid[i][j - 1] + 1) % 2;
+        return grid;
+    }
+
+    /**
+     * Packs a grid of any size into the given bitboard, overwriting its contents.
+     */
+    static void load(long[] grid, int[] vectorizedGrid) {
+        for (int w = 0; w < grid.length; w++) {
+            grid[w] = 0;
         }
-        if (i + 1 < grid.length) {
-            grid[i + 1][j] = (grid[i + 1][j] + 1) % 2;
+        for (int i = 0; i < vectorizedGrid.length; i++) {
+            if (vectorizedGrid[i] != 0) {
+                grid[i >>> 6] |= 1L << i;
+            }
         }
-        if (j + 1 < grid.length) {
-            grid[i][j + 1] = (grid[i][j + 1] + 1) % 2;
+    }
+
+    /**
+     * @return single long grid of at most 8x8 after pressing the given field
+     */
+    static long press(long grid, int n, int field) {
+        return grid ^ NEIGHBOURHOOD_MASKS[n][field];
+    }
+
+    static void press(long[] grid, int n, int field) {
+        if (n <= MAX_SINGLE_WORD_SIZE) {
+            grid[0] ^= NEIGHBOURHOOD_MASKS[n][field];
+        } else {
+            pressMultiWord(grid, n, field);
         }
     }
 
-    public boolean isSolved() {
-        int n = grid.length;
-        return Arrays.stream(this.grid).allMatch(row -> Arrays.stream(row).sum() == n);
+    static boolean isSolved(long grid, int n) {
+        return grid == SOLVED_MASKS[n];
     }
 
-    public void repr() {
-        for (int[] row : grid) {
-            System.out.println(Arrays.toString(row));
+    static boolean isSolved(long[] grid, int n) {
+        if (n <= MAX_SINGLE_WORD_SIZE) {
+            return isSolved(grid[0], n);
         }
+        int fullWords = n * n >>> 6;
+        for (int w = 0; w < fullWords; w++) {
+            if (grid[w] != -1L) {
+                return false;
+            }
+        }
+        int rest = n * n & 63;
+        return rest == 0 || grid[fullWords] == (1L << rest) - 1;
+    }
+
+    private static void pressMultiWord(long[] grid, int n, int field) {
+        int row = field / n;
+        int column = field % n;
+        flip(grid, field);
+        if (row > 0) {
+            flip(grid, field - n);
+        }
+        if (row < n - 1) {
+            flip(grid, field + n);
+        }
+        if (column > 0) {
+            flip(grid, field - 1);
+        }
+        if (column < n - 1) {
+            flip(grid, field + 1);
+        }
+    }
+
+    private static void flip(long[] grid, int field) {
+        grid[field >>> 6] ^= 1L << field;
     }
 
 }
@@ -1,17 +1,52 @@
 package lightsout.utilities.solutionchecker;
 
+/**
+ * Checks solutions by playing them on a bitboard (see {@link GameSimulator}).
+ * Grids up to 8x8 are checked in a single long, larger ones in a bitboard kept per thread,
+ * so checking a solution allocates nothing.
+ */
 public class SolutionChecker {
+    private final ThreadLocal<long[]> grids = ThreadLocal.withInitial(() -> new long[0]);
 
+    /**
+     * @param problem  grid reshaped(by rows) into a vector of length n^2
+     * @param solution fields to press, numbered by rows starting with 0
+     * @throws NotASolutionException    if the presses don't solve the problem or a press is outside the grid
+     * @throws IllegalArgumentException if the problem is not of length n^2
+     */
     public void checkSolutionIsCorrect(int[] problem, int[] solution) throws NotASolutionException {
-        GameSimulator gameSimulator = new GameSimulator(problem);
-        int n = (int) Math.floor(Math.sqrt(problem.length));
+        int n = GameSimulator.gridSize(problem);
         for (int i : solution) {
-            int pressRow = i / n;
-            int pressColumn = i % n;
-            gameSimulator.press(pressRow, pressColumn);
+            if (i < 0 || i >= problem.length) {
+                throw new NotASolutionException();
+            }
         }
-        if (!gameSimulator.isSolved()) {
+        boolean solved;
+        if (n <= GameSimulator.MAX_SINGLE_WORD_SIZE) {
+            long grid = GameSimulator.pack(problem);
+            for (int i : solution) {
+                grid = GameSimulator.press(grid, n, i);
+            }
+            solved = GameSimulator.isSolved(grid, n);
+        } else {
+            long[] grid = getGrid(n);
+            GameSimulator.load(grid, problem);
+            for (int i : solution) {
+                GameSimulator.press(grid, n, i);
+            }
+            solved = GameSimulator.isSolved(grid, n);
+        }
+        if (!solved) {
             throw new NotASolutionException();
         }
     }
+
+    private long[] getGrid(int n) {
+        long[] grid = grids.get();
+        if (grid.length < GameSimulator.words(n)) {
+            grid = new long[GameSimulator.words(n)];
+            grids.set(grid);
+        }
+        return grid;
+    }
 }
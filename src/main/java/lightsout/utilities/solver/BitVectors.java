@@ -0,0 +1,140 @@
+package lightsout.utilities.solver;
+
+/**
+ * Helpers for vectors in modulo2, packed 64 elements per long.
+ * Element i is stored in word i / 64 at bit i % 64.
+ */
+final class BitVectors {
+
+    private BitVectors() {
+    }
+
+    /**
+     * @param size number of elements
+     * @return number of longs needed to store a vector with the given number of elements
+     */
+    static int words(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    static boolean get(long[] vector, int i) {
+        return (vector[i >>> 6] & (1L << i)) != 0;
+    }
+
+    static void set(long[] vector, int i) {
+        vector[i >>> 6] |= 1L << i;
+    }
+
+    static void flip(long[] vector, int i) {
+        vector[i >>> 6] ^= 1L << i;
+    }
+
+    /**
+     * target = target + source (in modulo2)
+     */
+    static void xorInto(long[] target, long[] source) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] ^= source[w];
+        }
+    }
+
+    static int bitCount(long[] vector) {
+        int count = 0;
+        for (long word : vector) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return dot product of the two vectors in modulo2
+     */
+    static boolean dot(long[] a, long[] b) {
+        long parity = 0;
+        for (int w = 0; w < a.length; w++) {
+            parity ^= a[w] & b[w];
+        }
+        return (Long.bitCount(parity) & 1) != 0;
+    }
+
+    /**
+     * @param vector vector of 0s and 1s
+     * @return packed vector
+     */
+    static long[] fromIntVector(int[] vector) {
+        long[] packed = new long[words(vector.length)];
+        for (int i = 0; i < vector.length; i++) {
+            if (vector[i] % 2 != 0) {
+                set(packed, i);
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * @param vector packed vector
+     * @param size   number of elements
+     * @return vector of 0s and 1s
+     */
+    static int[] toIntVector(long[] vector, int size) {
+        int[] unpacked = new int[size];
+        for (int i = 0; i < size; i++) {
+            unpacked[i] = get(vector, i) ? 1 : 0;
+        }
+        return unpacked;
+    }
+
+    /**
+     * @param vector packed vector
+     * @return indices of the elements equal to 1, in increasing order
+     */
+    static int[] toIndices(long[] vector) {
+        int[] indices = new int[bitCount(vector)];
+        int k = 0;
+        for (int w = 0; w < vector.length; w++) {
+            long word = vector[w];
+            while (word != 0) {
+                indices[k++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Finds the vector with the least number of 1s among x + span(basis).
+     * The combinations are visited in Gray-code order, so every step adds exactly one basis vector
+     * and the number of 1s is updated from the changed words only.
+     *
+     * @param x     packed vector, it is not modified
+     * @param basis packed basis vectors, at most 62 of them
+     * @return lightest vector of the coset
+     */
+    static long[] lightestInCoset(long[] x, long[][] basis) {
+        if (basis.length > 62) {
+            throw new IllegalArgumentException("Too many basis vectors to enumerate.");
+        }
+        long[] best = x.clone();
+        if (basis.length == 0) {
+            return best;
+        }
+        long[] current = x.clone();
+        int bestWeight = bitCount(current);
+        int weight = bestWeight;
+        long combinations = 1L << basis.length;
+        for (long step = 1; step < combinations; step++) {
+            long[] basisVector = basis[Long.numberOfTrailingZeros(step)];
+            for (int w = 0; w < current.length; w++) {
+                long word = current[w];
+                long next = word ^ basisVector[w];
+                weight += Long.bitCount(next) - Long.bitCount(word);
+                current[w] = next;
+            }
+            if (weight < bestWeight) {
+                bestWeight = weight;
+                System.arraycopy(current, 0, best, 0, current.length);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,163 @@
+package lightsout.utilities.solver;
+
+import java.util.Arrays;
+
+/**
+ * Representative of a grid and its rotations and reflections (the 8 symmetries of a square).
+ * Pressing commutes with every symmetry, so if x solves a grid, the transformed x solves the transformed grid,
+ * with the same number of presses. All 8 variants of a grid therefore share one canonical board,
+ * which is the variant with the smallest bitmask, and one solution.
+ * <p>
+ * Two grids are equivalent iff their canonical boards are equal. The key is a hash of the canonical board
+ * that is stable between runs, so it can be stored and indexed, but different boards may share a key.
+ */
+public final class CanonicalBoard {
+    private static final int SYMMETRIES = 8;
+    /**
+     * Symmetry undoing the symmetry with the same index, rotations by 90 and 270 degrees undo each other.
+     */
+    private static final int[] INVERSES = {0, 3, 2, 1, 4, 5, 6, 7};
+
+    private final int n;
+    private final long[] bitmask;
+    private final int symmetry;
+    private final long key;
+
+    private CanonicalBoard(int n, long[] bitmask, int symmetry) {
+        this.n = n;
+        this.bitmask = bitmask;
+        this.symmetry = symmetry;
+        long hash = n;
+        for (long word : bitmask) {
+            hash = hash * 0x9e3779b97f4a7c15L + word;
+        }
+        this.key = mix(hash);
+    }
+
+    /**
+     * @param grid grid reshaped(by rows) into a vector of length n^2
+     * @return canonical board of the grid
+     * @throws IllegalArgumentException if grid of incorrect length
+     */
+    public static CanonicalBoard of(int[] grid) {
+        int n = (int) Math.round(Math.sqrt(grid.length));
+        if (n * n != grid.length) {
+            throw new IllegalArgumentException("Problem must be of length n^2.");
+        }
+        long[] best = null;
+        int bestSymmetry = 0;
+        long[] candidate = new long[BitVectors.words(grid.length)];
+        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+            Arrays.fill(candidate, 0);
+            for (int field = 0; field < grid.length; field++) {
+                if (grid[field] % 2 != 0) {
+                    BitVectors.set(candidate, transform(symmetry, n, field));
+                }
+            }
+            if (best == null || compare(candidate, best) < 0) {
+                best = candidate.clone();
+                bestSymmetry = symmetry;
+            }
+        }
+        return new CanonicalBoard(n, best, bestSymmetry);
+    }
+
+    /**
+     * @return the canonical grid reshaped(by rows) into a vector of length n^2
+     */
+    public int[] toGrid() {
+        return BitVectors.toIntVector(bitmask, n * n);
+    }
+
+    /**
+     * @param presses field numbers pressed on the canonical grid
+     * @return the same presses on the original grid, in increasing order
+     */
+    public int[] toOriginal(int[] presses) {
+        int inverse = INVERSES[symmetry];
+        int[] original = new int[presses.length];
+        for (int i = 0; i < presses.length; i++) {
+            original[i] = transform(inverse, n, presses[i]);
+        }
+        Arrays.sort(original);
+        return original;
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    /**
+     * @return stable hash of the canonical board
+     */
+    public long getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CanonicalBoard)) {
+            return false;
+        }
+        CanonicalBoard that = (CanonicalBoard) o;
+        return n == that.n && Arrays.equals(bitmask, that.bitmask);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key);
+    }
+
+    /**
+     * @return field number of the given field after applying the symmetry
+     */
+    private static int transform(int symmetry, int n, int field) {
+        int i = field / n;
+        int j = field % n;
+        int last = n - 1;
+        switch (symmetry) {
+            case 0: // identity
+                return field;
+            case 1: // rotation by 90 degrees
+                return j * n + (last - i);
+            case 2: // rotation by 180 degrees
+                return (last - i) * n + (last - j);
+            case 3: // rotation by 270 degrees
+                return (last - j) * n + i;
+            case 4: // reflection over the vertical axis
+                return i * n + (last - j);
+            case 5: // reflection over the main diagonal
+                return j * n + i;
+            case 6: // reflection over the horizontal axis
+                return (last - i) * n + j;
+            case 7: // reflection over the anti-diagonal
+                return (last - j) * n + (last - i);
+            default:
+                throw new IllegalArgumentException("Unknown symmetry " + symmetry + ".");
+        }
+    }
+
+    /**
+     * Compares the bitmasks as unsigned numbers, the last word being the most significant.
+     */
+    private static int compare(long[] a, long[] b) {
+        for (int w = a.length - 1; w >= 0; w--) {
+            if (a[w] != b[w]) {
+                return Long.compareUnsigned(a[w], b[w]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Final mixing step of SplitMix64, spreads every input bit over the whole key.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
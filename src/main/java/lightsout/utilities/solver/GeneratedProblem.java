@@ -0,0 +1,29 @@
+package lightsout.utilities.solver;
+
+/**
+ * Problem made by {@link ProblemGenerator}.
+ */
+public final class GeneratedProblem {
+    private final int[] grid;
+    private final int presses;
+
+    GeneratedProblem(int[] grid, int presses) {
+        this.grid = grid;
+        this.presses = presses;
+    }
+
+    /**
+     * @return grid reshaped(by rows) into a vector of length n^2
+     */
+    public int[] getGrid() {
+        return grid;
+    }
+
+    /**
+     * @return number of presses in the optimal solution, or in the solution found by the solver
+     * if the solutions for n are not guaranteed to be optimal, see {@link Solver#isOptimal(int)}
+     */
+    public int getPresses() {
+        return presses;
+    }
+}
@@ -0,0 +1,156 @@
+package lightsout.utilities.solver;
+
+import java.util.Arrays;
+
+/**
+ * Solves the lights out problem by chasing the lights down the grid.
+ * <p>
+ * Once the presses in the first row are fixed, the presses in every next row are forced: a field must be pressed
+ * exactly when the field above it still has to be toggled. After the last row only the last row can be left unsolved,
+ * and what is left there depends linearly on the presses in the first row. So instead of n^2 equations with n^2 unknowns
+ * we solve n equations with n unknowns (the first row), which is precomputed once per n into a {@link SolveOperator}.
+ * <p>
+ * The null space of the small system, chased down the grid, is the null space of the whole problem,
+ * so the solution with the least presses is still found by searching it, as long as it is not too large.
+ * The lights out matrix is symmetric, so its image is the orthogonal complement of its null space: a grid is solvable
+ * iff the fields to toggle are orthogonal to every vector of the null space basis, which needs no chasing.
+ * <p>
+ * All precomputed state is immutable. The grid that the lights are chased on is scratch space kept per thread.
+ */
+class LightChasingSolverStrategy implements SolverStrategy {
+    /**
+     * Null spaces up to this dimension are searched for the solution with the least presses.
+     * For larger null spaces the first solution found is returned.
+     */
+    static final int MAX_SEARCHED_NULLITY = 20;
+
+    private final int n;
+    private final int rowWords;
+    private final long lastWordMask;
+    private final SolveOperator firstRowOperator;
+    private final long[][] nullSpaceBasis;
+    private final ThreadLocal<long[][]> grids;
+
+    LightChasingSolverStrategy(int n) {
+        this.n = n;
+        this.rowWords = BitVectors.words(n);
+        this.lastWordMask = n % 64 == 0 ? -1L : (1L << n) - 1;
+        this.grids = ThreadLocal.withInitial(() -> new long[n + 1][rowWords]);
+
+        // column j of the first row matrix is what is left in the last row after pressing field j of the first row
+        long[][] firstRowMatrix = new long[n][rowWords];
+        for (int j = 0; j < n; j++) {
+            long[] firstRow = new long[rowWords];
+            BitVectors.set(firstRow, j);
+            long[] leftover = chase(new long[n + 1][rowWords], firstRow, null);
+            for (int i = 0; i < n; i++) {
+                if (BitVectors.get(leftover, i)) {
+                    BitVectors.set(firstRowMatrix[i], j);
+                }
+            }
+        }
+        this.firstRowOperator = new SolveOperator(firstRowMatrix, n);
+
+        long[][] firstRowNullSpace = firstRowOperator.getNullSpaceBasis();
+        this.nullSpaceBasis = new long[firstRowNullSpace.length][];
+        for (int i = 0; i < firstRowNullSpace.length; i++) {
+            long[] presses = new long[BitVectors.words(n * n)];
+            chase(new long[n + 1][rowWords], firstRowNullSpace[i], presses);
+            nullSpaceBasis[i] = presses;
+        }
+    }
+
+    @Override
+    public boolean isSolvable(long[] y) {
+        for (long[] basisVector : nullSpaceBasis) {
+            if (BitVectors.dot(basisVector, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long[] solve(long[] y) throws UnsolvableException {
+        long[] leftover = chase(toRows(y), new long[rowWords], null);
+        if (!firstRowOperator.isSolvable(leftover)) {
+            throw new UnsolvableException();
+        }
+        long[] firstRow = firstRowOperator.particularSolution(leftover);
+        long[] presses = new long[BitVectors.words(n * n)];
+        chase(toRows(y), firstRow, presses);
+        if (nullSpaceBasis.length > MAX_SEARCHED_NULLITY) {
+            return presses;
+        }
+        return BitVectors.lightestInCoset(presses, nullSpaceBasis);
+    }
+
+    /**
+     * Presses the given fields in the first row and chases the lights down to the last row.
+     *
+     * @param grid     packed rows of the fields that have to be toggled, they are modified,
+     *                 followed by one more row used as scratch space
+     * @param firstRow packed presses in the first row
+     * @param presses  if not null, all presses are added to it as a packed vector of length n^2
+     * @return packed fields of the last row that still have to be toggled, valid until the grid is reused
+     */
+    private long[] chase(long[][] grid, long[] firstRow, long[] presses) {
+        long[] pressed = grid[n];
+        pressRow(grid, 0, firstRow, presses);
+        for (int row = 1; row < n; row++) {
+            System.arraycopy(grid[row - 1], 0, pressed, 0, rowWords);
+            pressRow(grid, row, pressed, presses);
+        }
+        return grid[n - 1];
+    }
+
+    private void pressRow(long[][] grid, int row, long[] pressed, long[] presses) {
+        if (row > 0) {
+            BitVectors.xorInto(grid[row - 1], pressed);
+        }
+        if (row < n - 1) {
+            BitVectors.xorInto(grid[row + 1], pressed);
+        }
+        long[] current = grid[row];
+        for (int w = 0; w < rowWords; w++) {
+            long word = pressed[w];
+            long left = word << 1 | (w > 0 ? pressed[w - 1] >>> 63 : 0);
+            long right = word >>> 1 | (w < rowWords - 1 ? pressed[w + 1] << 63 : 0);
+            current[w] ^= word ^ left ^ right;
+        }
+        current[rowWords - 1] &= lastWordMask;
+        if (presses != null) {
+            for (int w = 0; w < rowWords; w++) {
+                long word = pressed[w];
+                while (word != 0) {
+                    BitVectors.set(presses, row * n + (w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return this thread's scratch grid, filled with the rows of y
+     */
+    private long[][] toRows(long[] y) {
+        long[][] grid = grids.get();
+        for (long[] row : grid) {
+            Arrays.fill(row, 0);
+        }
+        for (int w = 0; w < y.length; w++) {
+            long word = y[w];
+            while (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                BitVectors.set(grid[i / n], i % n);
+                word &= word - 1;
+            }
+        }
+        return grid;
+    }
+
+    @Override
+    public int getNullity() {
+        return nullSpaceBasis.length;
+    }
+}
@@ -0,0 +1,58 @@
+package lightsout.utilities.solver;
+
+/**
+ * Solves the lights out problem as a system of n^2 equations with n^2 unknowns.
+ * The system is reduced once into a {@link SolveOperator}, which is fast for small n but needs O(n^4) memory.
+ */
+class MatrixSolverStrategy implements SolverStrategy {
+    private final SolveOperator operator;
+
+    MatrixSolverStrategy(int n) {
+        this.operator = new SolveOperator(generateEquationsMatrixRows(n), n * n);
+    }
+
+    @Override
+    public boolean isSolvable(long[] y) {
+        return operator.isSolvable(y);
+    }
+
+    @Override
+    public long[] solve(long[] y) throws UnsolvableException {
+        return operator.solve(y);
+    }
+
+    @Override
+    public int getNullity() {
+        return operator.getNullity();
+    }
+
+    /**
+     * Generates the matrix rows representing the system of n^2 equations that the solution
+     * to the lights out problem must satisfy. Row i has a bit set for field i and each of its neighbours.
+     *
+     * @param n size of the grid
+     * @return matrix rows as bitsets
+     */
+    private static long[][] generateEquationsMatrixRows(int n) {
+        int m = n * n;
+        long[][] rows = new long[m][BitVectors.words(m)];
+        for (int i = 0; i < m; i++) {
+            int row = i / n;
+            int column = i % n;
+            BitVectors.set(rows[i], i);
+            if (row > 0) {
+                BitVectors.set(rows[i], i - n);
+            }
+            if (row < n - 1) {
+                BitVectors.set(rows[i], i + n);
+            }
+            if (column > 0) {
+                BitVectors.set(rows[i], i - 1);
+            }
+            if (column < n - 1) {
+                BitVectors.set(rows[i], i + 1);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,142 @@
+package lightsout.utilities.solver;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates random lights out problems that are solvable by construction.
+ * A problem is made by pressing a random set of fields on the solved grid, which is the XOR of the neighbourhoods
+ * of the pressed fields, so it can always be solved by pressing the same fields again.
+ * <p>
+ * The difficulty of a problem is the number of presses in its optimal solution. When every grid of size n is solvable
+ * the pressed set is the only solution, otherwise the optimal one is found by the solver. For the sizes whose
+ * solutions are not guaranteed to be optimal, see {@link Solver#isOptimal(int)}, the difficulty is only an upper bound
+ * and no minimal number of presses can be asked for.
+ * Grids up to 8x8 fit in a single long, where a press is a single XOR with the precomputed neighbourhood of the field,
+ * larger grids flip the bits of the field and its neighbours directly.
+ * The generator keeps no state of its own, so it can be used by many threads at once.
+ */
+public class ProblemGenerator {
+    /**
+     * Number of tries per requested problem before giving up on the difficulty.
+     */
+    static final int MAX_ATTEMPTS_PER_PROBLEM = 1000;
+    private static final int MAX_SINGLE_WORD_SIZE = 8;
+    private static final long[][] NEIGHBOURHOOD_MASKS = new long[MAX_SINGLE_WORD_SIZE + 1][];
+
+    static {
+        for (int n = 1; n <= MAX_SINGLE_WORD_SIZE; n++) {
+            NEIGHBOURHOOD_MASKS[n] = new long[n * n];
+            for (int i = 0; i < n * n; i++) {
+                long[] mask = new long[1];
+                press(mask, n, i);
+                NEIGHBOURHOOD_MASKS[n][i] = mask[0];
+            }
+        }
+    }
+
+    private final Solver solver;
+
+    /**
+     * @param solver solver finding the optimal solutions of grids with more than one solution
+     */
+    public ProblemGenerator(Solver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * @param n          size of the grid
+     * @param count      number of problems
+     * @param minPresses least number of presses in the optimal solution of every problem
+     * @param random     source of the pressed fields
+     * @return solvable problems with at least minPresses presses in their optimal solutions
+     * @throws IllegalArgumentException if n is not positive, minPresses is larger than n^2, minPresses is positive
+     *                                  while the solutions for n are not guaranteed to be optimal, or not enough
+     *                                  problems with minPresses presses were found
+     */
+    public GeneratedProblem[] generate(int n, int count, int minPresses, RandomGenerator random) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Grid size must be a positive integer.");
+        }
+        int m = n * n;
+        if (minPresses > m) {
+            throw new IllegalArgumentException("Minimal number of presses can't be larger than the number of fields.");
+        }
+        if (minPresses > 0 && !solver.isOptimal(n)) {
+            throw new IllegalArgumentException("Minimal number of presses is not supported for grids of size " + n
+                    + ", as their optimal solutions are not searched for.");
+        }
+        SolverStrategy strategy = solver.getStrategy(n);
+        int words = BitVectors.words(m);
+        long lastWordMask = m % 64 == 0 ? -1L : (1L << m) - 1;
+
+        GeneratedProblem[] problems = new GeneratedProblem[count];
+        long attempts = 0;
+        int generated = 0;
+        long[] pressed = new long[words];
+        while (generated < count) {
+            if (++attempts > (long) count * MAX_ATTEMPTS_PER_PROBLEM) {
+                throw new IllegalArgumentException("Could not generate enough problems with " + minPresses + " presses.");
+            }
+            for (int w = 0; w < words; w++) {
+                pressed[w] = random.nextLong();
+            }
+            pressed[words - 1] &= lastWordMask;
+            if (BitVectors.bitCount(pressed) < minPresses) {
+                continue; // the optimal solution is never longer than the pressed set
+            }
+
+            long[] toggled = new long[words];
+            if (n <= MAX_SINGLE_WORD_SIZE) {
+                long[] masks = NEIGHBOURHOOD_MASKS[n];
+                for (long bits = pressed[0]; bits != 0; bits &= bits - 1) {
+                    toggled[0] ^= masks[Long.numberOfTrailingZeros(bits)];
+                }
+            } else {
+                for (int w = 0; w < words; w++) {
+                    for (long bits = pressed[w]; bits != 0; bits &= bits - 1) {
+                        press(toggled, n, (w << 6) + Long.numberOfTrailingZeros(bits));
+                    }
+                }
+            }
+            int presses = BitVectors.bitCount(pressed);
+            if (strategy.getNullity() > 0) {
+                try {
+                    presses = BitVectors.bitCount(strategy.solve(toggled));
+                } catch (UnsolvableException e) {
+                    throw new IllegalStateException("Pressed grid must be solvable.", e);
+                }
+                if (presses < minPresses) {
+                    continue;
+                }
+            }
+
+            int[] grid = new int[m];
+            for (int i = 0; i < m; i++) {
+                grid[i] = BitVectors.get(toggled, i) ? 0 : 1;
+            }
+            problems[generated++] = new GeneratedProblem(grid, presses);
+        }
+        return problems;
+    }
+
+    /**
+     * Flips the given field of a nxn grid and its direct neighbours.
+     */
+    private static void press(long[] grid, int n, int field) {
+        int row = field / n;
+        int column = field % n;
+        BitVectors.flip(grid, field);
+        if (row > 0) {
+            BitVectors.flip(grid, field - n);
+        }
+        if (row < n - 1) {
+            BitVectors.flip(grid, field + n);
+        }
+        if (column > 0) {
+            BitVectors.flip(grid, field - 1);
+        }
+        if (column < n - 1) {
+            BitVectors.flip(grid, field + 1);
+        }
+    }
+}
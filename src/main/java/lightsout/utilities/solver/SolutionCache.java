@@ -0,0 +1,187 @@
+package lightsout.utilities.solver;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache in front of a {@link Solver}, keyed by the {@link CanonicalBoard} of the grid,
+ * so a grid and all its rotations and reflections share one entry.
+ * Both solutions and unsolvable verdicts are cached, solutions packed as bitmasks of the pressed fields.
+ * The cache is bounded by the total number of fields of the cached grids rather than by the number of grids,
+ * as a 200x200 grid weighs as much as thousands of small ones. When the cache is full, the least recently used
+ * entries are evicted.
+ * <p>
+ * The cache can be shared by many threads. Solving happens outside the lock, so two threads missing on the same grid
+ * at the same time both solve it and the second result replaces the first, which is the same.
+ */
+public class SolutionCache {
+    /**
+     * Cached value of unsolvable grids, compared by identity, so it is never confused with an empty solution.
+     */
+    private static final long[] UNSOLVABLE = new long[0];
+    /**
+     * Least weight of an entry, standing for the objects around the bitmasks, so small grids are not free.
+     */
+    static final int MIN_ENTRY_WEIGHT = 256;
+
+    private final Solver solver;
+    private final long maximumWeight;
+    private final Map<CanonicalBoard, long[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param solver        solver to use on a miss
+     * @param maximumWeight maximum total weight of the cached grids, a nxn grid weighs n^2,
+     *                      but at least {@link #MIN_ENTRY_WEIGHT}. Heavier grids are never cached.
+     */
+    public SolutionCache(Solver solver, long maximumWeight) {
+        if (maximumWeight < 1) {
+            throw new IllegalArgumentException("Cache weight must be a positive integer.");
+        }
+        this.solver = solver;
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * Same as {@link Solver#solve(int[])}, but answered from the cache when the grid was seen before.
+     *
+     * @param problem grid reshaped(by rows) into a vector of length n^2
+     * @return solution to the problem
+     * @throws UnsolvableException      if problem is unsolvable
+     * @throws IllegalArgumentException if problem of incorrect length
+     */
+    public int[] solve(int[] problem) throws UnsolvableException {
+        return solve(CanonicalBoard.of(problem));
+    }
+
+    /**
+     * @param board canonical board of the problem
+     * @return solution to the problem the board was made from
+     * @throws UnsolvableException if problem is unsolvable
+     */
+    public int[] solve(CanonicalBoard board) throws UnsolvableException {
+        long[] packedSolution = get(board);
+        if (packedSolution == UNSOLVABLE) {
+            throw new UnsolvableException();
+        }
+        if (packedSolution != null) {
+            return board.toOriginal(BitVectors.toIndices(packedSolution));
+        }
+        int[] solution;
+        try {
+            solution = solver.solve(board.toGrid());
+        } catch (UnsolvableException e) {
+            put(board, UNSOLVABLE);
+            throw e;
+        }
+        put(board, pack(solution, board.getSize()));
+        return board.toOriginal(solution);
+    }
+
+    /**
+     * Same as {@link Solver#solveAll(int[][])}, but only the grids missing from the cache are given to the solver.
+     *
+     * @param problems grids reshaped(by rows) into vectors of length n^2, the sizes may differ
+     * @return solutions to the problems, in the same order, with null for every unsolvable problem
+     * @throws IllegalArgumentException if any problem is of incorrect length
+     */
+    public int[][] solveAll(int[][] problems) {
+        int[][] solutions = new int[problems.length][];
+        CanonicalBoard[] boards = new CanonicalBoard[problems.length];
+        for (int i = 0; i < problems.length; i++) {
+            boards[i] = CanonicalBoard.of(problems[i]);
+        }
+        List<Integer> missed = new ArrayList<>();
+        for (int i = 0; i < problems.length; i++) {
+            long[] packedSolution = get(boards[i]);
+            if (packedSolution == null) {
+                missed.add(i);
+            } else if (packedSolution != UNSOLVABLE) {
+                solutions[i] = boards[i].toOriginal(BitVectors.toIndices(packedSolution));
+            }
+        }
+        if (missed.isEmpty()) {
+            return solutions;
+        }
+
+        int[][] missedProblems = new int[missed.size()][];
+        for (int k = 0; k < missedProblems.length; k++) {
+            missedProblems[k] = boards[missed.get(k)].toGrid();
+        }
+        int[][] missedSolutions = solver.solveAll(missedProblems);
+        for (int k = 0; k < missedSolutions.length; k++) {
+            int i = missed.get(k);
+            put(boards[i], missedSolutions[k] == null ? UNSOLVABLE : pack(missedSolutions[k], boards[i].getSize()));
+            solutions[i] = missedSolutions[k] == null ? null : boards[i].toOriginal(missedSolutions[k]);
+        }
+        return solutions;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return total weight of the cached grids
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    private synchronized long[] get(CanonicalBoard board) {
+        long[] solution = entries.get(board);
+        if (solution == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return solution;
+    }
+
+    private synchronized void put(CanonicalBoard board, long[] solution) {
+        long entryWeight = weight(board);
+        if (entryWeight > maximumWeight) {
+            return;
+        }
+        if (entries.put(board, solution) != null) {
+            return; // solved by two threads at once, the weight is already counted
+        }
+        weight += entryWeight;
+        Iterator<CanonicalBoard> eldest = entries.keySet().iterator();
+        while (weight > maximumWeight) {
+            weight -= weight(eldest.next());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static long weight(CanonicalBoard board) {
+        return Math.max((long) board.getSize() * board.getSize(), MIN_ENTRY_WEIGHT);
+    }
+
+    private static long[] pack(int[] presses, int n) {
+        long[] packed = new long[BitVectors.words(n * n)];
+        for (int field : presses) {
+            BitVectors.set(packed, field);
+        }
+        return packed;
+    }
+}
@@ -0,0 +1,142 @@
+package lightsout.utilities.solver;
+
+/**
+ * Precomputed operator for solving the system Ax=y in modulo2 for many different y.
+ * <p>
+ * The matrix A is reduced once, together with the identity matrix, which gives a matrix T with TA in
+ * reduced row echelon form. From T we keep:
+ * <ul>
+ *     <li>the pseudo-inverse P, where Py is a solution whenever the system is solvable,</li>
+ *     <li>the rows of T belonging to the zero rows of TA, the system is solvable iff y is orthogonal to all of them,</li>
+ *     <li>a basis of the null space of A, every other solution differs from Py by a combination of these.</li>
+ * </ul>
+ * Solving is then a single matrix-vector product, followed by the search over the null space.
+ * The operator is immutable once created, so it can be shared by any number of threads.
+ */
+public class SolveOperator {
+    private final int size;
+    private final long[][] pseudoInverse;
+    private final long[][] solvabilityConstraints;
+    private final long[][] nullSpaceBasis;
+
+    /**
+     * @param matrixRows rows of the square matrix A as bitsets, they are not modified
+     * @param size       number of rows (and columns) of A
+     */
+    SolveOperator(long[][] matrixRows, int size) {
+        this.size = size;
+        int words = BitVectors.words(size);
+        long[][] reduced = new long[size][words];
+        long[][] transformation = new long[size][words];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(matrixRows[i], 0, reduced[i], 0, words);
+            BitVectors.set(transformation[i], i);
+        }
+
+        int[] pivotColumns = new int[size];
+        boolean[] isPivotColumn = new boolean[size];
+        int rank = 0;
+        for (int column = 0; column < size; column++) {
+            int pivotRow = -1;
+            for (int j = rank; j < size; j++) {
+                if (BitVectors.get(reduced[j], column)) {
+                    pivotRow = j;
+                    break;
+                }
+            }
+            if (pivotRow == -1) {
+                continue; // free column
+            }
+            swap(reduced, rank, pivotRow);
+            swap(transformation, rank, pivotRow);
+            for (int j = 0; j < size; j++) {
+                if (j != rank && BitVectors.get(reduced[j], column)) {
+                    BitVectors.xorInto(reduced[j], reduced[rank]);
+                    BitVectors.xorInto(transformation[j], transformation[rank]);
+                }
+            }
+            pivotColumns[rank] = column;
+            isPivotColumn[column] = true;
+            rank++;
+        }
+
+        pseudoInverse = new long[size][words];
+        for (int i = 0; i < rank; i++) {
+            pseudoInverse[pivotColumns[i]] = transformation[i];
+        }
+        solvabilityConstraints = new long[size - rank][];
+        System.arraycopy(transformation, rank, solvabilityConstraints, 0, size - rank);
+        nullSpaceBasis = new long[size - rank][words];
+        int k = 0;
+        for (int freeColumn = 0; freeColumn < size; freeColumn++) {
+            if (isPivotColumn[freeColumn]) {
+                continue;
+            }
+            long[] basisVector = nullSpaceBasis[k++];
+            BitVectors.set(basisVector, freeColumn);
+            for (int i = 0; i < rank; i++) {
+                if (BitVectors.get(reduced[i], freeColumn)) {
+                    BitVectors.set(basisVector, pivotColumns[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param y packed right-hand side
+     * @return true if the system Ax=y has a solution
+     */
+    public boolean isSolvable(long[] y) {
+        for (long[] constraint : solvabilityConstraints) {
+            if (BitVectors.dot(constraint, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Solves the system Ax=y.
+     *
+     * @param y packed right-hand side
+     * @return packed solution with the least number of 1s
+     * @throws UnsolvableException if the system is unsolvable
+     */
+    public long[] solve(long[] y) throws UnsolvableException {
+        if (!isSolvable(y)) {
+            throw new UnsolvableException();
+        }
+        return BitVectors.lightestInCoset(particularSolution(y), nullSpaceBasis);
+    }
+
+    /**
+     * @param y packed right-hand side of a solvable system
+     * @return packed solution Py, which is not necessarily the one with the least number of 1s
+     */
+    long[] particularSolution(long[] y) {
+        long[] x = new long[BitVectors.words(size)];
+        for (int i = 0; i < size; i++) {
+            if (BitVectors.dot(pseudoInverse[i], y)) {
+                BitVectors.set(x, i);
+            }
+        }
+        return x;
+    }
+
+    /**
+     * @return dimension of the null space, i.e. the number of free parameters of every solution
+     */
+    public int getNullity() {
+        return nullSpaceBasis.length;
+    }
+
+    long[][] getNullSpaceBasis() {
+        return nullSpaceBasis;
+    }
+
+    private static void swap(long[][] rows, int i, int j) {
+        long[] temp = rows[i];
+        rows[i] = rows[j];
+        rows[j] = temp;
+    }
+}
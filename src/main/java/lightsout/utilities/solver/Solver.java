@@ -1,18 +1,35 @@
 package lightsout.utilities.solver;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Class for solving the lights out problem on a nxn matrix.
  * It transforms the problem into an equivalent system of equations in modulo2
  * and solves the system if the system is solvable.
+ * The system depends only on n, so it is precomputed once per n and reused for every problem of that size.
+ * Small grids are solved with the whole n^2 system ({@link MatrixSolverStrategy}),
+ * larger ones by light chasing, which only needs a system for the first row ({@link LightChasingSolverStrategy}).
+ * The precomputed strategies are immutable and shared, so one solver can be used by many threads at once.
  */
 public class Solver {
+    /**
+     * Largest n for which the whole n^2 system is precomputed.
+     */
+    public static final int MAX_MATRIX_STRATEGY_SIZE = 8;
+    /**
+     * Number of problems below which a batch is solved on the current thread instead of being split further.
+     */
+    private static final int BATCH_SPLIT_THRESHOLD = 64;
+
+    private final Map<Integer, SolverStrategy> strategies = new ConcurrentHashMap<>();
 
     /**
      * Solves the lights out problem on a nxn matrix.
+     * For grids whose null space is larger than {@link LightChasingSolverStrategy#MAX_SEARCHED_NULLITY}
+     * the solution is not guaranteed to have the least number of presses.
      *
      * @param problem grid reshaped(by rows) into a vector of length n^2
      * @return solution to the problem
@@ -20,52 +37,116 @@ public class Solver {
      * @throws IllegalArgumentException if problem of incorrect length
      */
     public int[] solve(int[] problem) throws UnsolvableException {
-        double m = Math.sqrt(problem.length);
-        if (m % 1 != 0) {
-            throw new IllegalArgumentException("Problem must be of length n^2.");
-        }
-        int n = (int) m;
-        int[] y = Arrays.stream(problem).map(i -> (i + 1) % 2).toArray();// b+Ax =z -> Ax = (z-b) = y
-        Mod2Matrix equationsMatrix = new Mod2Matrix(generateEquationsMatrixElements(n));
-        int[] solution = equationsMatrix.solveFor(y, true);
-        return equationSolutionToPressSolution(solution);
+        long[] solution = getStrategy(getGridSize(problem)).solve(toTargetVector(problem));
+        return BitVectors.toIndices(solution);
     }
 
-    private int[] equationSolutionToPressSolution(int[] solution) {
-        List<Integer> pressSolution = new ArrayList<>();
-        for (int i = 0; i < solution.length; i++) {
-            if (solution[i] == 1) {
-                pressSolution.add(i);
-            }
+    /**
+     * Checks whether the problem is solvable without solving it. Only the precomputed constraints for n are checked,
+     * which is one dot product per free parameter of the solutions, and none when every nxn problem is solvable.
+     *
+     * @param problem grid reshaped(by rows) into a vector of length n^2
+     * @return true if the problem is solvable
+     * @throws IllegalArgumentException if problem of incorrect length
+     */
+    public boolean isSolvable(int[] problem) {
+        return getStrategy(getGridSize(problem)).isSolvable(toTargetVector(problem));
+    }
+
+    /**
+     * Solves many lights out problems at once, splitting the work across the common {@link ForkJoinPool}.
+     * The precomputation for each size is shared by all problems of that size.
+     *
+     * @param problems grids reshaped(by rows) into vectors of length n^2, the sizes may differ
+     * @return solutions to the problems, in the same order, with null for every unsolvable problem
+     * @throws IllegalArgumentException if any problem is of incorrect length
+     */
+    public int[][] solveAll(int[][] problems) {
+        for (int[] problem : problems) {
+            precompute(getGridSize(problem));
         }
-        return pressSolution.stream().mapToInt(i -> i).toArray();
+        int[][] solutions = new int[problems.length][];
+        ForkJoinPool.commonPool().invoke(new SolveAllTask(problems, solutions, 0, problems.length));
+        return solutions;
     }
 
     /**
-     * Generates the matrix elements representing the system of n^2 equations that the solution
-     * to the lights out problem must satisfy.
+     * Prepares the solver for problems on a nxn matrix, so that the first such problem is solved as fast as the rest.
      *
      * @param n size of the grid
-     * @return matrix elements
      */
-    private int[][] generateEquationsMatrixElements(int n) {
-        int m = n * n;
-        int[][] elements = new int[m][m];
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < m; j++) {
-                int row1 = i / n;
-                int column1 = i % n;
-
-                int row2 = j / n;
-                int column2 = j % n;
-
-                if (Math.abs(row1 - row2) + Math.abs(column1 - column2) < 2) {
-                    elements[i][j] = 1;
+    public void precompute(int n) {
+        getStrategy(n);
+    }
+
+    /**
+     * @param n size of the grid
+     * @return number of free parameters of every solution on a nxn grid, i.e. the dimension of the null space
+     */
+    public int getNullity(int n) {
+        return getStrategy(n).getNullity();
+    }
+
+    /**
+     * @param n size of the grid
+     * @return true if the solutions on a nxn grid are guaranteed to have the least number of presses,
+     * which is when its null space is small enough to be searched
+     */
+    public boolean isOptimal(int n) {
+        return getNullity(n) <= LightChasingSolverStrategy.MAX_SEARCHED_NULLITY;
+    }
+
+    private int getGridSize(int[] problem) {
+        double m = Math.sqrt(problem.length);
+        if (m % 1 != 0) {
+            throw new IllegalArgumentException("Problem must be of length n^2.");
+        }
+        return (int) m;
+    }
+
+    private long[] toTargetVector(int[] problem) {
+        long[] y = BitVectors.fromIntVector(problem);// b+Ax =z -> Ax = (z-b) = y
+        for (int i = 0; i < problem.length; i++) {
+            BitVectors.flip(y, i);
+        }
+        return y;
+    }
+
+    SolverStrategy getStrategy(int n) {
+        return strategies.computeIfAbsent(n, size -> size <= MAX_MATRIX_STRATEGY_SIZE
+                ? new MatrixSolverStrategy(size)
+                : new LightChasingSolverStrategy(size));
+    }
+
+    private class SolveAllTask extends RecursiveAction {
+        private final int[][] problems;
+        private final int[][] solutions;
+        private final int from;
+        private final int to;
+
+        SolveAllTask(int[][] problems, int[][] solutions, int from, int to) {
+            this.problems = problems;
+            this.solutions = solutions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        solutions[i] = solve(problems[i]);
+                    } catch (UnsolvableException e) {
+                        solutions[i] = null;
+                    }
                 }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SolveAllTask(problems, solutions, from, middle),
+                        new SolveAllTask(problems, solutions, middle, to));
             }
         }
-        return elements;
     }
 
-
 }
@@ -0,0 +1,28 @@
+package lightsout.utilities.solver;
+
+/**
+ * Way of solving lights out problems of one fixed size n.
+ * Implementations do their precomputation for n when they are created and are reused for every problem of that size.
+ * Problems and solutions are packed vectors of length n^2, see {@link BitVectors}.
+ */
+interface SolverStrategy {
+
+    /**
+     * @param y packed vector of the fields that have to be toggled
+     * @return true if the fields can be toggled by pressing
+     */
+    boolean isSolvable(long[] y);
+
+    /**
+     * @param y packed vector of the fields that have to be toggled
+     * @return packed vector of the fields to press, with the least number of presses
+     * if the null space is at most {@link LightChasingSolverStrategy#MAX_SEARCHED_NULLITY} dimensional
+     * @throws UnsolvableException if the fields can not be toggled by pressing
+     */
+    long[] solve(long[] y) throws UnsolvableException;
+
+    /**
+     * @return dimension of the null space, i.e. the number of free parameters of every solution
+     */
+    int getNullity();
+}
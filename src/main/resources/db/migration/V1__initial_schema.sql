@@ -0,0 +1,40 @@
+create sequence hibernate_sequence start 1 increment 1;
+
+create table Player (
+    id       int8         not null,
+    age      int4         not null,
+    username varchar(255) not null,
+    primary key (id),
+    constraint UK_player_username unique (username)
+);
+
+create table Problem (
+    id           int8 not null,
+    createdBy_id int8,
+    primary key (id),
+    constraint FK_problem_createdBy foreign key (createdBy_id) references Player
+);
+
+create table Problem_grid (
+    Problem_id int8 not null,
+    grid       int4,
+    constraint FK_problem_grid_problem foreign key (Problem_id) references Problem
+);
+
+create table Solution (
+    id          int8 not null,
+    problem_id  int8,
+    solvedBy_id int8,
+    primary key (id),
+    constraint FK_solution_problem foreign key (problem_id) references Problem,
+    constraint FK_solution_solvedBy foreign key (solvedBy_id) references Player
+);
+
+create table SolutionStep (
+    id          int8 not null,
+    step        int4 not null,
+    stepNum     int4 not null,
+    solution_id int8,
+    primary key (id),
+    constraint FK_solutionstep_solution foreign key (solution_id) references Solution
+);
@@ -0,0 +1,42 @@
+-- Moves the grids from the Problem_grid element collection into a bitmask column of Problem,
+-- in the format of lightsout.models.GridConverter: field i is bit i % 8 of byte i / 8,
+-- followed by a stop bit right after the last field.
+alter table Problem add column grid bytea;
+alter table Problem add column size int4;
+
+-- the element collection has no order column, the fields were inserted in order, so the physical order is used
+with fields as (
+    select Problem_id,
+           grid as value,
+           row_number() over (partition by Problem_id order by ctid) - 1 as field,
+           count(*) over (partition by Problem_id) as fields
+    from Problem_grid
+),
+bits as (
+    select Problem_id, field, value from fields
+    union all
+    select Problem_id, fields, 1 from fields where field = 0
+),
+bytes as (
+    select Problem_id, field / 8 as byte_index, sum(value << cast(field % 8 as int4)) as byte_value
+    from bits
+    group by Problem_id, field / 8
+),
+packed as (
+    select bytes.Problem_id,
+           decode(string_agg(lpad(to_hex(bytes.byte_value), 2, '0'), '' order by bytes.byte_index), 'hex') as grid,
+           cast(round(sqrt(max(fields.fields))) as int4) as size
+    from bytes
+    join fields on fields.Problem_id = bytes.Problem_id and fields.field = 0
+    group by bytes.Problem_id
+)
+update Problem
+set grid = packed.grid,
+    size = packed.size
+from packed
+where Problem.id = packed.Problem_id;
+
+alter table Problem alter column grid set not null;
+alter table Problem alter column size set not null;
+
+drop table Problem_grid;
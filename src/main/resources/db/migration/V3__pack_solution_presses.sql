@@ -0,0 +1,23 @@
+-- Moves the presses from one SolutionStep row per press into a column of Solution,
+-- in the format of lightsout.models.PressesConverter: every field number in 7-bit groups, lowest first,
+-- with the high bit set on all but the last byte of a number. Field numbers below 2^21 are handled here.
+alter table Solution add column presses bytea;
+
+update Solution
+set presses = coalesce((
+    select decode(string_agg(
+                   case
+                       when step < 128 then lpad(to_hex(step), 2, '0')
+                       when step < 16384 then lpad(to_hex((step & 127) | 128), 2, '0')
+                           || lpad(to_hex(step >> 7), 2, '0')
+                       else lpad(to_hex((step & 127) | 128), 2, '0')
+                           || lpad(to_hex(((step >> 7) & 127) | 128), 2, '0')
+                           || lpad(to_hex(step >> 14), 2, '0')
+                   end, '' order by stepNum), 'hex')
+    from SolutionStep
+    where SolutionStep.solution_id = Solution.id
+), decode('', 'hex'));
+
+alter table Solution alter column presses set not null;
+
+drop table SolutionStep;
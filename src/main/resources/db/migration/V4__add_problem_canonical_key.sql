@@ -0,0 +1,5 @@
+-- Key shared by a grid and its rotations and reflections, see lightsout.utilities.solver.CanonicalBoard.
+-- It can't be computed here, the existing problems get it from ProblemsService when the application starts.
+alter table Problem add column canonicalKey int8;
+
+create index problem_canonicalkey_index on Problem (canonicalKey);
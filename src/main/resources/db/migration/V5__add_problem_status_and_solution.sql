@@ -0,0 +1,6 @@
+-- Problems can be stored before they are solved. Until now only solvable problems were stored.
+alter table Problem add column status varchar(255) not null default 'SOLVABLE';
+alter table Problem alter column status drop default;
+
+-- Solutions of the existing problems are left empty, they are solved again when needed.
+alter table Problem add column solution bytea;
@@ -0,0 +1,7 @@
+-- The listings by creator, solver and problem filter on the foreign key and page by id,
+-- so the id is part of the index and a page is read in order without sorting.
+create index problem_createdby_index on Problem (createdBy_id, id);
+
+create index solution_problem_index on Solution (problem_id, id);
+
+create index solution_solvedby_index on Solution (solvedBy_id, id);
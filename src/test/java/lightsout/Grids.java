@@ -0,0 +1,87 @@
+package lightsout;
+
+import lightsout.models.Board;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Grids shared by the tests and benchmarks, reshaped(by rows) into vectors of length n^2.
+ */
+public final class Grids {
+
+    private Grids() {
+    }
+
+    /**
+     * Presses random fields on the solved grid, so the resulting grid is solvable.
+     */
+    public static int[] solvableGrid(Random random, int n) {
+        int[] grid = solvedGrid(n);
+        for (int i = 0; i < n * n; i++) {
+            if (random.nextBoolean()) {
+                press(grid, n, i);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @return grid of random fields, which may be unsolvable
+     */
+    public static int[] randomGrid(Random random, int n) {
+        int[] grid = new int[n * n];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = random.nextInt(2);
+        }
+        return grid;
+    }
+
+    /**
+     * @return nxn grid with every field lit, which needs no presses
+     */
+    public static int[] solvedGrid(int n) {
+        int[] grid = new int[n * n];
+        Arrays.fill(grid, 1);
+        return grid;
+    }
+
+    /**
+     * @return 4x4 grid with every field lit except the first one, which is unsolvable
+     */
+    public static int[] unsolvableGrid() {
+        int[] grid = solvedGrid(4);
+        grid[0] = 0;
+        return grid;
+    }
+
+    /**
+     * @return 3x3 grid with only the given field lit
+     */
+    public static Board gridWithLitField(int field) {
+        int[] grid = new int[9];
+        grid[field] = 1;
+        return Board.of(grid);
+    }
+
+    /**
+     * Toggles the given field of a nxn grid and its direct neighbours.
+     */
+    private static void press(int[] grid, int n, int field) {
+        int row = field / n;
+        int column = field % n;
+        grid[field] ^= 1;
+        if (row > 0) {
+            grid[field - n] ^= 1;
+        }
+        if (row < n - 1) {
+            grid[field + n] ^= 1;
+        }
+        if (column > 0) {
+            grid[field - 1] ^= 1;
+        }
+        if (column < n - 1) {
+            grid[field + 1] ^= 1;
+        }
+    }
+}
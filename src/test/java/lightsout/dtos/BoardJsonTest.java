@@ -0,0 +1,81 @@
+package lightsout.dtos;
+
+import lightsout.models.Board;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.json.bind.JsonbException;
+import java.util.Random;
+
+public class BoardJsonTest {
+    private final Jsonb jsonb = JsonbBuilder.create();
+
+    @Test
+    public void testSerializeAsNestedArrays() {
+        ProblemDTO problem = new ProblemDTO(1, Board.of(new int[]{
+                1, 0, 1,
+                0, 0, 0,
+                1, 0, 0}), "player1");
+
+        String json = jsonb.toJson(problem);
+
+        Assertions.assertTrue(json.contains("\"grid\":[[1,0,1],[0,0,0],[1,0,0]]"), json);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Random random = new Random(1);
+        for (int n = 1; n <= 20; n++) {
+            int[] grid = new int[n * n];
+            for (int i = 0; i < grid.length; i++) {
+                grid[i] = random.nextInt(2);
+            }
+            ProblemDTO problem = new ProblemDTO(n, Board.of(grid), "player1");
+
+            ProblemDTO readProblem = jsonb.fromJson(jsonb.toJson(problem), ProblemDTO.class);
+
+            Assertions.assertEquals(problem, readProblem);
+        }
+    }
+
+    @Test
+    public void testGridWithBadValueThrowsException() {
+        Assertions.assertThrows(JsonbException.class, () ->
+                jsonb.fromJson("{\"grid\":[[0,0,0],[0,0,2],[0,0,0]]}", ProblemDTO.class));
+        Assertions.assertThrows(JsonbException.class, () ->
+                jsonb.fromJson("{\"grid\":[[0,0,0],[0,\"1\",0],[0,0,0]]}", ProblemDTO.class));
+    }
+
+    @Test
+    public void testGridNotSquareThrowsException() {
+        Assertions.assertThrows(JsonbException.class, () ->
+                jsonb.fromJson("{\"grid\":[[0,0,0],[0,0,0,1],[0,0,0]]}", ProblemDTO.class));
+        Assertions.assertThrows(JsonbException.class, () ->
+                jsonb.fromJson("{\"grid\":[[0,0,0,1],[0,0,1,1],[0,0,0,1]]}", ProblemDTO.class));
+        Assertions.assertThrows(JsonbException.class, () ->
+                jsonb.fromJson("{\"grid\":[[0,0],[0,0],[0,0]]}", ProblemDTO.class));
+    }
+
+    @Test
+    public void testEmptyGridThrowsException() {
+        Assertions.assertThrows(JsonbException.class, () ->
+                jsonb.fromJson("{\"grid\":[]}", ProblemDTO.class));
+        Assertions.assertThrows(JsonbException.class, () ->
+                jsonb.fromJson("{\"grid\":[[]]}", ProblemDTO.class));
+    }
+
+    @Test
+    public void testTooWideGridThrowsException() {
+        StringBuilder json = new StringBuilder("{\"grid\":[[0");
+        for (int i = 1; i < 30000; i++) {
+            json.append(",0");
+        }
+        json.append("]]}");
+
+        JsonbException e = Assertions.assertThrows(JsonbException.class, () ->
+                jsonb.fromJson(json.toString(), ProblemDTO.class));
+        Assertions.assertTrue(e.getMessage().contains("at most"), e.getMessage());
+    }
+}
@@ -0,0 +1,44 @@
+package lightsout.models;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class GridConverterTest {
+    private final GridConverter gridConverter = new GridConverter();
+
+    @Test
+    public void testBitmaskLayout() {
+        Board board = Board.of(new int[]{
+                1, 0, 1,
+                0, 0, 0,
+                1, 0, 1});
+
+        byte[] bitmask = gridConverter.convertToDatabaseColumn(board);
+
+        Assertions.assertArrayEquals(new byte[]{0b01000101, 0b00000011}, bitmask);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Random random = new Random(1);
+        for (int n = 3; n <= 40; n++) {
+            int[] grid = new int[n * n];
+            for (int i = 0; i < grid.length; i++) {
+                grid[i] = random.nextInt(2);
+            }
+
+            byte[] bitmask = gridConverter.convertToDatabaseColumn(Board.of(grid));
+
+            Assertions.assertEquals(n * n / 8 + 1, bitmask.length);
+            Assertions.assertArrayEquals(grid, gridConverter.convertToEntityAttribute(bitmask).toVector());
+        }
+    }
+
+    @Test
+    public void testBitmaskWithoutStopBitThrowsException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                gridConverter.convertToEntityAttribute(new byte[]{0, 0}));
+    }
+}
@@ -0,0 +1,33 @@
+package lightsout.models;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PressesConverterTest {
+    private final PressesConverter pressesConverter = new PressesConverter();
+
+    @Test
+    public void testPressesLayout() {
+        int[] presses = new int[]{4, 127, 128, 39999};
+
+        byte[] bytes = pressesConverter.convertToDatabaseColumn(presses);
+
+        Assertions.assertArrayEquals(new byte[]{4, 127, (byte) 0x80, 1, (byte) 0xbf, (byte) 0xb8, 2}, bytes);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        int[] presses = new int[]{4, 4, 4, 0, 127, 128, 16383, 16384, 39999, Integer.MAX_VALUE};
+
+        Assertions.assertArrayEquals(presses, pressesConverter.convertToEntityAttribute(
+                pressesConverter.convertToDatabaseColumn(presses)));
+        Assertions.assertArrayEquals(new int[0], pressesConverter.convertToEntityAttribute(
+                pressesConverter.convertToDatabaseColumn(new int[0])));
+    }
+
+    @Test
+    public void testTruncatedPressesThrowsException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                pressesConverter.convertToEntityAttribute(new byte[]{4, (byte) 0x80}));
+    }
+}
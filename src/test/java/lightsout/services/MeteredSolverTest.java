@@ -0,0 +1,59 @@
+package lightsout.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lightsout.Grids;
+import lightsout.utilities.solver.UnsolvableException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MeteredSolverTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final MeteredSolver solver = new MeteredSolver(registry);
+
+    @Test
+    public void testSolveIsRecorded() throws UnsolvableException {
+        int[] problem = new int[]{
+                1, 0, 1,
+                0, 0, 0,
+                1, 0, 1};
+
+        solver.solve(problem);
+        solver.solve(problem);
+
+        Assertions.assertEquals(2, registry.get("lightsout.solver.solve").tag("size", "3").timer().count());
+        Assertions.assertEquals(1, registry.get("lightsout.solver.solution.length").tag("size", "3").summary().mean());
+        Assertions.assertEquals(0, registry.get("lightsout.solver.nullity").tag("size", "3").summary().max());
+    }
+
+    @Test
+    public void testUnsolvableIsCounted() {
+        int[] problem = Grids.unsolvableGrid();
+
+        Assertions.assertThrows(UnsolvableException.class, () -> solver.solve(problem));
+
+        Assertions.assertEquals(1, registry.get("lightsout.solver.unsolvable").tag("size", "4").tag("stage", "solve").counter().count());
+        Assertions.assertEquals(0, registry.get("lightsout.solver.unsolvable").tag("size", "4").tag("stage", "check").counter().count());
+        Assertions.assertEquals(1, registry.get("lightsout.solver.solve").tag("size", "4").timer().count());
+    }
+
+    @Test
+    public void testRejectionIsCountedSeparately() {
+        int[] problem = Grids.unsolvableGrid();
+
+        Assertions.assertFalse(solver.isSolvable(problem));
+
+        Assertions.assertEquals(1, registry.get("lightsout.solver.unsolvable").tag("size", "4").tag("stage", "check").counter().count());
+        Assertions.assertEquals(0, registry.get("lightsout.solver.unsolvable").tag("size", "4").tag("stage", "solve").counter().count());
+        Assertions.assertEquals(0, registry.get("lightsout.solver.solve").tag("size", "4").timer().count());
+    }
+
+    @Test
+    public void testSolveAllIsRecorded() {
+        int[] problem = new int[9];
+
+        solver.solveAll(new int[][]{problem, problem, problem});
+
+        Assertions.assertEquals(3, registry.get("lightsout.solver.solve").tag("size", "3").timer().count());
+    }
+}
@@ -17,7 +17,7 @@ public class PlayersServiceTest {
 
     @Test
     public void testGetPlayers() {
-        Assertions.assertEquals(new ArrayList<PlayerDTO>(), playersService.getPlayers());
+        Assertions.assertEquals(new ArrayList<PlayerDTO>(), playersService.getPlayers(0, 100).getItems());
     }
 
 
@@ -29,7 +29,7 @@ public class PlayersServiceTest {
 
         playersService.createPlayer(username, age);
 
-        List<PlayerDTO> players = playersService.getPlayers();
+        List<PlayerDTO> players = playersService.getPlayers(0, 100).getItems();
         Assertions.assertEquals(1, players.size());
         PlayerDTO createdPlayer = players.get(0);
         Assertions.assertEquals(createdPlayer.getUsername(), username);
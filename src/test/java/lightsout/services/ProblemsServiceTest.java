@@ -2,14 +2,28 @@ package lightsout.services;
 
 import io.quarkus.test.TestTransaction;
 import io.quarkus.test.junit.QuarkusTest;
+import lightsout.Grids;
+import lightsout.dtos.PageDTO;
+import lightsout.dtos.ProblemBatchResultDTO;
 import lightsout.dtos.ProblemDTO;
+import lightsout.dtos.ProblemStatusDTO;
+import lightsout.models.Board;
+import lightsout.models.ProblemStatus;
 import lightsout.utilities.solver.UnsolvableException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import javax.inject.Inject;
+import javax.json.bind.JsonbBuilder;
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -20,6 +34,10 @@ public class ProblemsServiceTest {
     ProblemsService problemsService;
     @Inject
     PlayersService playersService;
+    @Inject
+    EntityManager em;
+    @ConfigProperty(name = "lightsout.grid.max-size")
+    int maxGridSize;
     private final String storedPlayerUsername = "player1";
 
     @BeforeEach
@@ -36,7 +54,7 @@ public class ProblemsServiceTest {
 
     @Test
     public void testGetProblems() {
-        Assertions.assertEquals(new ArrayList<ProblemDTO>(), problemsService.getProblems());
+        Assertions.assertEquals(new ArrayList<ProblemDTO>(), problemsService.getProblems(0, 100).getItems());
     }
 
     @Test
@@ -47,50 +65,159 @@ public class ProblemsServiceTest {
         grid.add(Arrays.asList(0, 1, 0));
         grid.add(Arrays.asList(0, 0, 0));
 
-        problemsService.addProblem(grid, storedPlayerUsername);
+        problemsService.addProblem(toBoard(grid), storedPlayerUsername);
 
-        List<ProblemDTO> problemDTOS = problemsService.getProblems();
-        Assertions.assertEquals(1, problemsService.getProblems().size());
+        List<ProblemDTO> problemDTOS = problemsService.getProblems(0, 100).getItems();
+        Assertions.assertEquals(1, problemsService.getProblems(0, 100).getItems().size());
 
         ProblemDTO storedProblem = problemDTOS.get(0);
 
-        Assertions.assertEquals(grid, storedProblem.getGrid());
+        Assertions.assertEquals(toBoard(grid), storedProblem.getGrid());
         Assertions.assertEquals(storedPlayerUsername, storedProblem.getCreatedByUsername());
     }
 
     @Test
-    public void testAddProblemWithGridBadFormatThrowsException1() {
-        List<List<Integer>> grid = new ArrayList<>();
-        grid.add(Arrays.asList(0, 0, 0));
-        grid.add(Arrays.asList(0, 0, 2));
-        grid.add(Arrays.asList(0, 0, 0));
+    @TestTransaction
+    public void testGetProblemsUsesOneStatement() throws UnsolvableException {
+        int[] litFields = new int[]{0, 1, 4};
+        for (int i = 0; i < litFields.length; i++) {
+            playersService.createPlayer(storedPlayerUsername + i, 12);
+            problemsService.addProblem(Grids.gridWithLitField(litFields[i]), storedPlayerUsername + i);
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
 
-        Assertions.assertThrows(IllegalArgumentException.class, () ->
-                problemsService.addProblem(grid, storedPlayerUsername));
-        Assertions.assertEquals(0, problemsService.getProblems().size());
+        List<ProblemDTO> problems = problemsService.getProblems(0, 100).getItems();
+
+        Assertions.assertEquals(3, problems.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @TestTransaction
+    public void testGetProblemsPaged() throws UnsolvableException {
+        for (int litField : new int[]{0, 1, 4}) {
+            problemsService.addProblem(Grids.gridWithLitField(litField), storedPlayerUsername);
+        }
+
+        PageDTO<ProblemDTO> firstPage = problemsService.getProblems(0, 2);
+        PageDTO<ProblemDTO> secondPage = problemsService.getProblems(firstPage.getNextCursor(), 2);
+
+        Assertions.assertEquals(2, firstPage.getItems().size());
+        Assertions.assertEquals(firstPage.getItems().get(1).getId(), firstPage.getNextCursor());
+        Assertions.assertEquals(1, secondPage.getItems().size());
+        Assertions.assertNull(secondPage.getNextCursor());
+        Assertions.assertTrue(secondPage.getItems().get(0).getId() > firstPage.getNextCursor());
+    }
+
+    @Test
+    public void testGetProblemsWithLimitOutOfRangeThrowsException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> problemsService.getProblems(0, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> problemsService.getProblems(0, 1001));
+    }
+
+    @Test
+    @TestTransaction
+    public void testExportProblems() throws UnsolvableException, IOException {
+        problemsService.addProblem(Grids.gridWithLitField(0), storedPlayerUsername);
+        problemsService.addProblem(Grids.gridWithLitField(4), storedPlayerUsername);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
 
+        problemsService.exportProblems(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(2, lines.length);
+        ProblemDTO first = JsonbBuilder.create().fromJson(lines[0], ProblemDTO.class);
+        ProblemDTO second = JsonbBuilder.create().fromJson(lines[1], ProblemDTO.class);
+        Assertions.assertEquals(Grids.gridWithLitField(0), first.getGrid());
+        Assertions.assertEquals(Grids.gridWithLitField(4), second.getGrid());
+        Assertions.assertEquals(storedPlayerUsername, first.getCreatedByUsername());
     }
 
     @Test
-    public void testAddProblemWithGridBadFormatThrowsException2() {
+    @TestTransaction
+    public void testGetSolution() throws UnsolvableException {
         List<List<Integer>> grid = new ArrayList<>();
+        grid.add(Arrays.asList(1, 0, 1));
         grid.add(Arrays.asList(0, 0, 0));
-        grid.add(Arrays.asList(0, 0, 0, 1));
-        grid.add(Arrays.asList(0, 0, 0));
-        Assertions.assertThrows(IllegalArgumentException.class, () ->
-                problemsService.addProblem(grid, storedPlayerUsername));
-        Assertions.assertEquals(0, problemsService.getProblems().size());
+        grid.add(Arrays.asList(1, 0, 1));
+        ProblemDTO problem = problemsService.addProblem(toBoard(grid), storedPlayerUsername);
+
+        Assertions.assertArrayEquals(new int[]{4}, problemsService.getSolution(problem.getId()));
+        Assertions.assertNull(problemsService.getSolution(1337));
+    }
+
+    @Test
+    @TestTransaction
+    public void testAddEquivalentProblemReturnsStoredProblem() throws UnsolvableException {
+        ProblemDTO problem = problemsService.addProblem(Grids.gridWithLitField(0), storedPlayerUsername);
+
+        ProblemDTO rotatedProblem = problemsService.addProblem(Grids.gridWithLitField(8), storedPlayerUsername);
+
+        Assertions.assertEquals(problem, rotatedProblem);
+        Assertions.assertEquals(1, problemsService.getProblems(0, 100).getItems().size());
+    }
+
+    @Test
+    @TestTransaction
+    public void testAddPendingProblemIsListedOnceSolved() throws UnsolvableException {
+        ProblemStatusDTO status = problemsService.addPendingProblem(Grids.gridWithLitField(4), storedPlayerUsername);
+
+        Assertions.assertEquals(ProblemStatus.PENDING, status.getStatus());
+        Assertions.assertNull(problemsService.getProblemById(status.getId()));
+        Assertions.assertEquals(0, problemsService.getProblems(0, 100).getItems().size());
+
+        int[] solution = problemsService.solve(Grids.gridWithLitField(4));
+        problemsService.saveSolveResult(status.getId(), solution);
+
+        ProblemStatusDTO solvedStatus = problemsService.getProblemStatus(status.getId());
+        Assertions.assertEquals(ProblemStatus.SOLVABLE, solvedStatus.getStatus());
+        Assertions.assertArrayEquals(solution, solvedStatus.getSolution());
+        Assertions.assertArrayEquals(solution, problemsService.getSolution(status.getId()));
+        Assertions.assertEquals(1, problemsService.getProblems(0, 100).getItems().size());
     }
 
     @Test
-    public void testAddProblemWithGridBadFormatThrowsException3() {
+    @TestTransaction
+    public void testAddProblemSolvesPendingEquivalentProblem() throws UnsolvableException {
+        ProblemStatusDTO status = problemsService.addPendingProblem(Grids.gridWithLitField(0), storedPlayerUsername);
+
+        ProblemDTO problem = problemsService.addProblem(Grids.gridWithLitField(8), storedPlayerUsername);
+
+        Assertions.assertEquals(status.getId(), problem.getId());
+        Assertions.assertEquals(ProblemStatus.SOLVABLE, problemsService.getProblemStatus(status.getId()).getStatus());
+        Assertions.assertEquals(problem, problemsService.getProblemById(problem.getId()));
+        Assertions.assertEquals(1, problemsService.getProblems(0, 100).getItems().size());
+    }
+
+    @Test
+    @TestTransaction
+    public void testUnsolvablePendingProblemIsNotListed() throws UnsolvableException {
+        ProblemStatusDTO status = problemsService.addPendingProblem(Grids.gridWithLitField(4), storedPlayerUsername);
+
+        problemsService.saveSolveResult(status.getId(), null);
+
+        Assertions.assertEquals(ProblemStatus.UNSOLVABLE, problemsService.getProblemStatus(status.getId()).getStatus());
+        Assertions.assertNull(problemsService.getSolution(status.getId()));
+        Assertions.assertThrows(UnsolvableException.class, () ->
+                problemsService.addProblem(Grids.gridWithLitField(4), storedPlayerUsername));
+    }
+
+    @Test
+    public void testAddUnsolvableProblemThrowsException() {
         List<List<Integer>> grid = new ArrayList<>();
-        grid.add(Arrays.asList(0, 0, 0, 1));
-        grid.add(Arrays.asList(0, 0, 1, 1));
-        grid.add(Arrays.asList(0, 0, 0, 1));
-        Assertions.assertThrows(IllegalArgumentException.class, () ->
-                problemsService.addProblem(grid, storedPlayerUsername));
-        Assertions.assertEquals(0, problemsService.getProblems().size());
+        grid.add(Arrays.asList(0, 1, 1, 1));
+        grid.add(Arrays.asList(1, 1, 1, 1));
+        grid.add(Arrays.asList(1, 1, 1, 1));
+        grid.add(Arrays.asList(1, 1, 1, 1));
+
+        Assertions.assertThrows(UnsolvableException.class, () ->
+                problemsService.addProblem(toBoard(grid), storedPlayerUsername));
+        Assertions.assertThrows(UnsolvableException.class, () ->
+                problemsService.addPendingProblem(toBoard(grid), storedPlayerUsername));
+        Assertions.assertEquals(0, problemsService.getProblems(0, 100).getItems().size());
     }
 
     @Test
@@ -99,24 +226,24 @@ public class ProblemsServiceTest {
         grid.add(Arrays.asList(0, 0));
         grid.add(Arrays.asList(0, 0));
         Assertions.assertThrows(IllegalArgumentException.class, () ->
-                problemsService.addProblem(grid, storedPlayerUsername));
-        Assertions.assertEquals(0, problemsService.getProblems().size());
+                problemsService.addProblem(toBoard(grid), storedPlayerUsername));
+        Assertions.assertEquals(0, problemsService.getProblems(0, 100).getItems().size());
     }
 
     @Test
     public void testAddProblemWithGridTooBigThrowsException() {
-        List<List<Integer>> grid = new ArrayList<>();
-        grid.add(Arrays.asList(0, 0, 0, 0, 1, 0, 0, 0, 1));
-        grid.add(Arrays.asList(0, 0, 0, 0, 1, 0, 0, 0, 1));
-        grid.add(Arrays.asList(0, 0, 0, 0, 1, 0, 0, 0, 1));
-        grid.add(Arrays.asList(0, 0, 0, 0, 1, 0, 0, 0, 1));
-        grid.add(Arrays.asList(0, 0, 0, 0, 1, 0, 0, 0, 1));
-        grid.add(Arrays.asList(0, 0, 0, 0, 1, 0, 0, 0, 1));
-        grid.add(Arrays.asList(0, 0, 0, 0, 1, 0, 0, 0, 1));
-        grid.add(Arrays.asList(0, 0, 0, 0, 1, 0, 0, 0, 1));
         Assertions.assertThrows(IllegalArgumentException.class, () ->
-                problemsService.addProblem(grid, storedPlayerUsername));
-        Assertions.assertEquals(0, problemsService.getProblems().size());
+                problemsService.addProblem(Board.of(Grids.solvedGrid(maxGridSize + 1)), storedPlayerUsername));
+        Assertions.assertEquals(0, problemsService.getProblems(0, 100).getItems().size());
+    }
+
+    @Test
+    @TestTransaction
+    public void testAddProblemWithGridOfMaxSize() throws UnsolvableException {
+        ProblemDTO problem = problemsService.addProblem(Board.of(Grids.solvedGrid(maxGridSize)), storedPlayerUsername);
+
+        Assertions.assertEquals(maxGridSize, problem.getGrid().getSize());
+        Assertions.assertEquals(problem, problemsService.getProblemById(problem.getId()));
     }
 
     @Test
@@ -127,8 +254,8 @@ public class ProblemsServiceTest {
         grid.add(Arrays.asList(0, 0, 0, 1));
         grid.add(Arrays.asList(0, 1, 0, 0));
 
-        Assertions.assertThrows(UnsolvableException.class, () -> problemsService.addProblem(grid, storedPlayerUsername));
-        Assertions.assertEquals(0, problemsService.getProblems().size());
+        Assertions.assertThrows(UnsolvableException.class, () -> problemsService.addProblem(toBoard(grid), storedPlayerUsername));
+        Assertions.assertEquals(0, problemsService.getProblems(0, 100).getItems().size());
     }
 
 
@@ -140,10 +267,10 @@ public class ProblemsServiceTest {
         grid.add(Arrays.asList(1, 0, 0));
         grid.add(Arrays.asList(0, 0, 0));
 
-        ProblemDTO problemDTO = problemsService.addProblem(grid, storedPlayerUsername);
-        ProblemDTO problemDTO2 = problemsService.addProblem(grid, storedPlayerUsername);
+        ProblemDTO problemDTO = problemsService.addProblem(toBoard(grid), storedPlayerUsername);
+        ProblemDTO problemDTO2 = problemsService.addProblem(toBoard(grid), storedPlayerUsername);
 
-        List<ProblemDTO> problemDTOS = problemsService.getProblemsCreatedBy(storedPlayerUsername);
+        List<ProblemDTO> problemDTOS = problemsService.getProblemsCreatedBy(storedPlayerUsername, 0, 100).getItems();
 
         Assertions.assertTrue(problemDTOS.contains(problemDTO));
         Assertions.assertTrue(problemDTOS.contains(problemDTO2));
@@ -157,7 +284,7 @@ public class ProblemsServiceTest {
         grid.add(Arrays.asList(0, 0, 0));
         grid.add(Arrays.asList(0, 0, 0));
 
-        ProblemDTO problemDTO = problemsService.addProblem(grid, storedPlayerUsername);
+        ProblemDTO problemDTO = problemsService.addProblem(toBoard(grid), storedPlayerUsername);
         ProblemDTO storedProblem = problemsService.getProblemById(problemDTO.getId());
 
         Assertions.assertEquals(problemDTO.getGrid(), storedProblem.getGrid());
@@ -165,4 +292,61 @@ public class ProblemsServiceTest {
         Assertions.assertEquals(problemDTO.getId(), storedProblem.getId());
     }
 
+    @Test
+    @TestTransaction
+    public void testAddProblems() {
+        List<List<Integer>> solvableGrid = new ArrayList<>();
+        solvableGrid.add(Arrays.asList(0, 0, 0));
+        solvableGrid.add(Arrays.asList(0, 1, 0));
+        solvableGrid.add(Arrays.asList(0, 0, 0));
+        List<List<Integer>> unsolvableGrid = new ArrayList<>();
+        unsolvableGrid.add(Arrays.asList(0, 0, 1, 0));
+        unsolvableGrid.add(Arrays.asList(1, 0, 0, 0));
+        unsolvableGrid.add(Arrays.asList(0, 0, 0, 1));
+        unsolvableGrid.add(Arrays.asList(0, 1, 0, 0));
+        List<ProblemDTO> problems = new ArrayList<>();
+        problems.add(new ProblemDTO(0, toBoard(solvableGrid), storedPlayerUsername));
+        problems.add(new ProblemDTO(0, toBoard(unsolvableGrid), storedPlayerUsername));
+        problems.add(new ProblemDTO(0, toBoard(solvableGrid), storedPlayerUsername));
+
+        ProblemBatchResultDTO result = problemsService.addProblems(problems);
+
+        Assertions.assertEquals(2, result.getAddedProblems().size());
+        Assertions.assertEquals(List.of(1), result.getUnsolvableIndices());
+        Assertions.assertEquals(1, problemsService.getProblems(0, 100).getItems().size());
+        Assertions.assertEquals(toBoard(solvableGrid), result.getAddedProblems().get(0).getGrid());
+        Assertions.assertEquals(result.getAddedProblems().get(0), result.getAddedProblems().get(1));
+    }
+
+    @Test
+    @TestTransaction
+    public void testAddProblemsSolvesPendingEquivalentProblem() throws UnsolvableException {
+        ProblemStatusDTO status = problemsService.addPendingProblem(Grids.gridWithLitField(0), storedPlayerUsername);
+        List<ProblemDTO> problems = new ArrayList<>();
+        problems.add(new ProblemDTO(0, Grids.gridWithLitField(8), storedPlayerUsername));
+        problems.add(new ProblemDTO(0, Grids.gridWithLitField(4), storedPlayerUsername));
+
+        ProblemBatchResultDTO result = problemsService.addProblems(problems);
+
+        Assertions.assertEquals(2, result.getAddedProblems().size());
+        Assertions.assertEquals(status.getId(), result.getAddedProblems().get(0).getId());
+        Assertions.assertEquals(ProblemStatus.SOLVABLE, problemsService.getProblemStatus(status.getId()).getStatus());
+        Assertions.assertEquals(result.getAddedProblems().get(0), problemsService.getProblemById(status.getId()));
+        Assertions.assertEquals(2, problemsService.getProblems(0, 100).getItems().size());
+    }
+
+    @Test
+    public void testAddProblemsWithGridTooSmallThrowsException() {
+        List<ProblemDTO> problems = new ArrayList<>();
+        problems.add(new ProblemDTO(0, Grids.gridWithLitField(4), storedPlayerUsername));
+        problems.add(new ProblemDTO(0, Board.of(new int[]{0, 1, 1, 0}), storedPlayerUsername));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> problemsService.addProblems(problems));
+        Assertions.assertEquals(0, problemsService.getProblems(0, 100).getItems().size());
+    }
+
+
+    private Board toBoard(List<List<Integer>> grid) {
+        return Board.of(grid.stream().flatMapToInt(row -> row.stream().mapToInt(Integer::intValue)).toArray());
+    }
 }
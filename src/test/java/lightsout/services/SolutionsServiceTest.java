@@ -4,16 +4,19 @@ import io.quarkus.test.TestTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import lightsout.dtos.ProblemDTO;
 import lightsout.dtos.ProblemSolutionDTO;
+import lightsout.models.Board;
 import lightsout.utilities.solutionchecker.NotASolutionException;
 import lightsout.utilities.solver.UnsolvableException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import javax.inject.Inject;
+import javax.persistence.EntityManager;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 @QuarkusTest
@@ -24,6 +27,8 @@ public class SolutionsServiceTest {
     ProblemsService problemsService;
     @Inject
     SolutionsService solutionsService;
+    @Inject
+    EntityManager em;
 
     private final String storedPlayerUsername = "player1";
     private long problemId;
@@ -34,10 +39,10 @@ public class SolutionsServiceTest {
         // Add a player and problem, so that we have them in the database
         // we are using Before/After Each, as the AfterAll version is unable to remove the player/problem, due to the loss of context.
         playersService.createPlayer(storedPlayerUsername, 12);
-        List<List<Integer>> grid = new ArrayList<>();
-        grid.add(Arrays.asList(1, 0, 1));
-        grid.add(Arrays.asList(0, 0, 0));
-        grid.add(Arrays.asList(1, 0, 1));
+        Board grid = Board.of(new int[]{
+                1, 0, 1,
+                0, 0, 0,
+                1, 0, 1});
 
         ProblemDTO problem = problemsService.addProblem(grid, storedPlayerUsername);
         problemId = problem.getId();
@@ -51,7 +56,7 @@ public class SolutionsServiceTest {
 
     @Test
     public void testGetSolutions() {
-        Assertions.assertEquals(new ArrayList<ProblemSolutionDTO>(), solutionsService.getSolutions());
+        Assertions.assertEquals(new ArrayList<ProblemSolutionDTO>(), solutionsService.getSolutions(0, 100).getItems());
     }
 
     @Test
@@ -61,12 +66,31 @@ public class SolutionsServiceTest {
 
         solutionsService.addProblemSolution(problemId, solution, storedPlayerUsername);
 
-        Assertions.assertEquals(1, solutionsService.getSolutions().size());
-        ProblemSolutionDTO savedSolution = solutionsService.getSolutions().get(0);
+        Assertions.assertEquals(1, solutionsService.getSolutions(0, 100).getItems().size());
+        ProblemSolutionDTO savedSolution = solutionsService.getSolutions(0, 100).getItems().get(0);
         Assertions.assertEquals(problemId, savedSolution.getProblemId());
         Assertions.assertArrayEquals(solution, savedSolution.getSolution());
     }
 
+    @Test
+    @TestTransaction
+    public void testGetSolutionsUsesOneStatement() throws NotASolutionException {
+        int[] solution = new int[]{4};
+        for (int i = 2; i <= 4; i++) {
+            playersService.createPlayer(storedPlayerUsername + i, 12);
+            solutionsService.addProblemSolution(problemId, solution, storedPlayerUsername + i);
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ProblemSolutionDTO> solutions = solutionsService.getSolutions(0, 100).getItems();
+
+        Assertions.assertEquals(3, solutions.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
     @Test
     @TestTransaction
     public void testAddIncorrectSolutionThrowsException() {
@@ -74,7 +98,7 @@ public class SolutionsServiceTest {
         Assertions.assertThrows(NotASolutionException.class, () ->
                 solutionsService.addProblemSolution(problemId, solution, storedPlayerUsername));
 
-        Assertions.assertEquals(0, solutionsService.getSolutions().size());
+        Assertions.assertEquals(0, solutionsService.getSolutions(0, 100).getItems().size());
     }
 
     @Test
@@ -84,7 +108,7 @@ public class SolutionsServiceTest {
         Assertions.assertThrows(IllegalArgumentException.class, () ->
                 solutionsService.addProblemSolution(1337, solution, storedPlayerUsername));
 
-        Assertions.assertEquals(0, solutionsService.getSolutions().size());
+        Assertions.assertEquals(0, solutionsService.getSolutions(0, 100).getItems().size());
     }
 
     @Test
@@ -94,7 +118,7 @@ public class SolutionsServiceTest {
         Assertions.assertThrows(IllegalArgumentException.class, () ->
                 solutionsService.addProblemSolution(problemId, solution, "player2"));
 
-        Assertions.assertEquals(0, solutionsService.getSolutions().size());
+        Assertions.assertEquals(0, solutionsService.getSolutions(0, 100).getItems().size());
     }
 
     @Test
@@ -106,7 +130,7 @@ public class SolutionsServiceTest {
         playersService.createPlayer(anotherUsername, 12);
         solutionsService.addProblemSolution(problemId, solution, anotherUsername);
 
-        List<ProblemSolutionDTO> userSolutions = solutionsService.getSolutionsByUser(storedPlayerUsername);
+        List<ProblemSolutionDTO> userSolutions = solutionsService.getSolutionsByUser(storedPlayerUsername, 0, 100).getItems();
 
         Assertions.assertEquals(1, userSolutions.size());
         Assertions.assertEquals(storedPlayerUsername, userSolutions.get(0).getSolverUsername());
@@ -121,7 +145,7 @@ public class SolutionsServiceTest {
         playersService.createPlayer(anotherUsername, 12);
         solutionsService.addProblemSolution(problemId, solution, anotherUsername);
 
-        List<ProblemSolutionDTO> userSolutions = solutionsService.getSolutionsByUser(storedPlayerUsername);
+        List<ProblemSolutionDTO> userSolutions = solutionsService.getSolutionsByUser(storedPlayerUsername, 0, 100).getItems();
 
         Assertions.assertEquals(1, userSolutions.size());
         Assertions.assertEquals(storedPlayerUsername, userSolutions.get(0).getSolverUsername());
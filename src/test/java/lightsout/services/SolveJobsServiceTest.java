@@ -0,0 +1,91 @@
+package lightsout.services;
+
+import io.quarkus.arc.ClientProxy;
+import io.quarkus.test.junit.QuarkusTest;
+import lightsout.Grids;
+import lightsout.dtos.ProblemStatusDTO;
+import lightsout.models.ProblemStatus;
+import lightsout.utilities.solver.UnsolvableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+@QuarkusTest
+public class SolveJobsServiceTest {
+    @Inject
+    SolveJobsService solveJobsService;
+    @Inject
+    ProblemsService problemsService;
+    @Inject
+    PlayersService playersService;
+    private final String storedPlayerUsername = "player1";
+    private final List<Long> addedProblemIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        playersService.createPlayer(storedPlayerUsername, 12);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        // the jobs commit on their own threads, so nothing is rolled back for us
+        addedProblemIds.forEach(problemsService::removeProblem);
+        playersService.removePlayer(storedPlayerUsername);
+    }
+
+    @Test
+    public void testAddProblemIsSolvedInBackground() throws UnsolvableException, InterruptedException {
+        ProblemStatusDTO status = solveJobsService.addProblem(Grids.gridWithLitField(4), storedPlayerUsername);
+        addedProblemIds.add(status.getId());
+
+        Assertions.assertEquals(ProblemStatus.PENDING, status.getStatus());
+        ProblemStatusDTO solvedStatus = awaitSolved(status.getId());
+        Assertions.assertEquals(ProblemStatus.SOLVABLE, solvedStatus.getStatus());
+        Assertions.assertArrayEquals(problemsService.solve(Grids.gridWithLitField(4)), solvedStatus.getSolution());
+        Assertions.assertNotNull(problemsService.getProblemById(status.getId()));
+    }
+
+    @Test
+    public void testDroppedPendingProblemIsQueuedAgain() throws UnsolvableException, InterruptedException {
+        // stored as pending without a job, like a problem whose job was dropped on shutdown
+        ProblemStatusDTO pendingStatus = problemsService.addPendingProblem(Grids.gridWithLitField(0), storedPlayerUsername);
+        addedProblemIds.add(pendingStatus.getId());
+
+        ProblemStatusDTO status = solveJobsService.addProblem(Grids.gridWithLitField(8), storedPlayerUsername);
+
+        Assertions.assertEquals(pendingStatus.getId(), status.getId());
+        Assertions.assertEquals(ProblemStatus.SOLVABLE, awaitSolved(status.getId()).getStatus());
+    }
+
+    @Test
+    public void testAddProblemWithFullQueueThrowsException() {
+        Semaphore permits = ((SolveJobsService) ((ClientProxy) solveJobsService).arc_contextualInstance()).permits;
+        int drained = permits.drainPermits();
+        try {
+            Assertions.assertThrows(RejectedExecutionException.class, () ->
+                    solveJobsService.addProblem(Grids.gridWithLitField(4), storedPlayerUsername));
+        } finally {
+            permits.release(drained);
+        }
+        Assertions.assertEquals(List.of(), problemsService.getPendingProblemIds(100));
+        Assertions.assertEquals(0, problemsService.getProblems(0, 100).getItems().size());
+    }
+
+    private ProblemStatusDTO awaitSolved(long id) throws InterruptedException {
+        for (int i = 0; i < 1000; i++) {
+            ProblemStatusDTO status = problemsService.getProblemStatus(id);
+            if (status.getStatus() != ProblemStatus.PENDING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return Assertions.fail("Problem " + id + " was not solved in time.");
+    }
+}
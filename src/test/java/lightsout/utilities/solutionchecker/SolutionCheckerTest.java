@@ -0,0 +1,58 @@
+package lightsout.utilities.solutionchecker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SolutionCheckerTest {
+    private final SolutionChecker solutionChecker = new SolutionChecker();
+
+    @Test
+    public void testCorrectSolution() throws NotASolutionException {
+        int[] problem = new int[]{
+                1, 0, 1,
+                0, 0, 0,
+                1, 0, 1};
+
+        solutionChecker.checkSolutionIsCorrect(problem, new int[]{4});
+        solutionChecker.checkSolutionIsCorrect(problem, new int[]{4, 4, 4});
+    }
+
+    @Test
+    public void testIncorrectSolutionThrowsException() {
+        int[] problem = new int[]{
+                1, 0, 1,
+                0, 0, 0,
+                1, 0, 1};
+
+        Assertions.assertThrows(NotASolutionException.class, () ->
+                solutionChecker.checkSolutionIsCorrect(problem, new int[]{4, 4}));
+    }
+
+    @Test
+    public void testPressOutsideGridThrowsException() {
+        int[] problem = new int[]{
+                1, 0, 1,
+                0, 0, 0,
+                1, 0, 1};
+
+        Assertions.assertThrows(NotASolutionException.class, () ->
+                solutionChecker.checkSolutionIsCorrect(problem, new int[]{4, 9}));
+    }
+
+    @Test
+    public void testLargeGrid() throws NotASolutionException {
+        int n = 12;
+        int[] problem = new int[n * n];
+        for (int i = 0; i < n * n; i++) {
+            problem[i] = 1;
+        }
+        // pressing the corner turns off the corner and its two neighbours
+        problem[0] = 0;
+        problem[1] = 0;
+        problem[n] = 0;
+
+        solutionChecker.checkSolutionIsCorrect(problem, new int[]{0});
+        Assertions.assertThrows(NotASolutionException.class, () ->
+                solutionChecker.checkSolutionIsCorrect(problem, new int[]{1}));
+    }
+}
@@ -0,0 +1,82 @@
+package lightsout.utilities.solver;
+
+import lightsout.Grids;
+import lightsout.utilities.solutionchecker.NotASolutionException;
+import lightsout.utilities.solutionchecker.SolutionChecker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class CanonicalBoardTest {
+
+    @Test
+    public void testRotationsAndReflectionsShareTheBoard() {
+        Random random = new Random(3);
+        for (int n = 3; n <= 12; n++) {
+            int[] grid = Grids.randomGrid(random, n);
+            CanonicalBoard board = CanonicalBoard.of(grid);
+            int[] variant = grid;
+            for (int rotation = 0; rotation < 4; rotation++) {
+                variant = rotate(variant, n);
+                Assertions.assertEquals(board, CanonicalBoard.of(variant));
+                Assertions.assertEquals(board, CanonicalBoard.of(transpose(variant, n)));
+                Assertions.assertEquals(board.getKey(), CanonicalBoard.of(variant).getKey());
+            }
+        }
+    }
+
+    @Test
+    public void testDifferentBoardsAreNotEqual() {
+        int[] corner = new int[]{
+                1, 0, 0,
+                0, 0, 0,
+                0, 0, 0};
+        int[] edge = new int[]{
+                0, 1, 0,
+                0, 0, 0,
+                0, 0, 0};
+
+        Assertions.assertNotEquals(CanonicalBoard.of(corner), CanonicalBoard.of(edge));
+    }
+
+    @Test
+    public void testSolutionIsTransformedBack() throws UnsolvableException, NotASolutionException {
+        Random random = new Random(4);
+        Solver solver = new Solver();
+        SolutionChecker solutionChecker = new SolutionChecker();
+        for (int n = 3; n <= 12; n++) {
+            int[] grid = Grids.solvableGrid(random, n);
+            int[] variant = transpose(rotate(grid, n), n);
+            SolutionCache solutionCache = new SolutionCache(solver, 10 * SolutionCache.MIN_ENTRY_WEIGHT);
+
+            int[] solution = solutionCache.solve(grid);
+            int[] variantSolution = solutionCache.solve(variant);
+
+            solutionChecker.checkSolutionIsCorrect(grid, solution);
+            solutionChecker.checkSolutionIsCorrect(variant, variantSolution);
+            Assertions.assertEquals(solution.length, variantSolution.length);
+            Assertions.assertEquals(1, solutionCache.getHits());
+        }
+    }
+
+    private int[] rotate(int[] grid, int n) {
+        int[] rotated = new int[grid.length];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                rotated[j * n + (n - 1 - i)] = grid[i * n + j];
+            }
+        }
+        return rotated;
+    }
+
+    private int[] transpose(int[] grid, int n) {
+        int[] transposed = new int[grid.length];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                transposed[j * n + i] = grid[i * n + j];
+            }
+        }
+        return transposed;
+    }
+}
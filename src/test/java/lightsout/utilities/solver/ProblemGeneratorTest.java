@@ -0,0 +1,60 @@
+package lightsout.utilities.solver;
+
+import lightsout.utilities.solutionchecker.NotASolutionException;
+import lightsout.utilities.solutionchecker.SolutionChecker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+public class ProblemGeneratorTest {
+
+    private final Solver solver = new Solver();
+    private final ProblemGenerator generator = new ProblemGenerator(solver);
+    private final SolutionChecker solutionChecker = new SolutionChecker();
+
+    @Test
+    public void testGeneratedProblemsAreSolvable() throws UnsolvableException, NotASolutionException {
+        for (int n : new int[]{3, 4, 5, 8, 9, 20}) {
+            for (GeneratedProblem problem : generator.generate(n, 50, 0, new SplittableRandom(42))) {
+                int[] solution = solver.solve(problem.getGrid());
+                solutionChecker.checkSolutionIsCorrect(problem.getGrid(), solution);
+                if (n <= Solver.MAX_MATRIX_STRATEGY_SIZE) {
+                    Assertions.assertEquals(solution.length, problem.getPresses());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGeneratedLargeProblemIsSolvable() throws UnsolvableException, NotASolutionException {
+        GeneratedProblem problem = generator.generate(200, 1, 0, new SplittableRandom(42))[0];
+        solutionChecker.checkSolutionIsCorrect(problem.getGrid(), solver.solve(problem.getGrid()));
+    }
+
+    @Test
+    public void testGeneratedProblemsHaveMinPresses() throws UnsolvableException {
+        for (int n : new int[]{3, 5}) {
+            for (GeneratedProblem problem : generator.generate(n, 50, n * n / 2, new SplittableRandom(42))) {
+                Assertions.assertTrue(problem.getPresses() >= n * n / 2);
+                Assertions.assertEquals(solver.solve(problem.getGrid()).length, problem.getPresses());
+            }
+        }
+    }
+
+    @Test
+    public void testUnreachableMinPressesThrowsException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                generator.generate(3, 1, 10, new SplittableRandom(42)));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                generator.generate(5, 1, 25, new SplittableRandom(42)));
+    }
+
+    @Test
+    public void testMinPressesForNotOptimalSizeThrowsException() {
+        Assertions.assertFalse(solver.isOptimal(39));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                generator.generate(39, 1, 1, new SplittableRandom(42)));
+        Assertions.assertEquals(1, generator.generate(39, 1, 0, new SplittableRandom(42)).length);
+    }
+}
@@ -0,0 +1,86 @@
+package lightsout.utilities.solver;
+
+import lightsout.Grids;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SolutionCacheTest {
+    private final int[] problem = new int[]{
+            1, 0, 1,
+            0, 0, 0,
+            1, 0, 1};
+
+    @Test
+    public void testRepeatedProblemIsServedFromCache() throws UnsolvableException {
+        SolutionCache solutionCache = new SolutionCache(new Solver(), 10 * SolutionCache.MIN_ENTRY_WEIGHT);
+
+        int[] first = solutionCache.solve(problem);
+        int[] second = solutionCache.solve(problem.clone());
+
+        Assertions.assertArrayEquals(new Solver().solve(problem), first);
+        Assertions.assertArrayEquals(first, second);
+        Assertions.assertEquals(1, solutionCache.getMisses());
+        Assertions.assertEquals(1, solutionCache.getHits());
+    }
+
+    @Test
+    public void testUnsolvableVerdictIsCached() {
+        SolutionCache solutionCache = new SolutionCache(new Solver(), 10 * SolutionCache.MIN_ENTRY_WEIGHT);
+        int[] unsolvable = Grids.unsolvableGrid();
+
+        Assertions.assertThrows(UnsolvableException.class, () -> solutionCache.solve(unsolvable));
+        Assertions.assertThrows(UnsolvableException.class, () -> solutionCache.solve(unsolvable));
+        Assertions.assertEquals(1, solutionCache.getMisses());
+        Assertions.assertEquals(1, solutionCache.getHits());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws UnsolvableException {
+        SolutionCache solutionCache = new SolutionCache(new Solver(), 2 * SolutionCache.MIN_ENTRY_WEIGHT);
+        int[] other = problem.clone();
+        other[4] = 1;
+        int[] third = new int[9];
+
+        solutionCache.solve(problem);
+        solutionCache.solve(other);
+        solutionCache.solve(problem);
+        solutionCache.solve(third); // evicts other
+        solutionCache.solve(problem);
+        solutionCache.solve(other);
+
+        Assertions.assertEquals(2, solutionCache.size());
+        Assertions.assertEquals(2, solutionCache.getEvictions());
+        Assertions.assertEquals(2, solutionCache.getHits());
+        Assertions.assertEquals(4, solutionCache.getMisses());
+    }
+
+    @Test
+    public void testCacheIsBoundedByFields() throws UnsolvableException {
+        SolutionCache solutionCache = new SolutionCache(new Solver(), 1000);
+        int[] large = new int[40 * 40];
+
+        solutionCache.solve(problem);
+        solutionCache.solve(large); // heavier than the whole cache, so it is not cached
+        solutionCache.solve(new int[30 * 30]); // evicts problem
+
+        Assertions.assertEquals(1, solutionCache.size());
+        Assertions.assertEquals(900, solutionCache.weight());
+        Assertions.assertEquals(1, solutionCache.getEvictions());
+        Assertions.assertArrayEquals(new Solver().solve(large), solutionCache.solve(large));
+    }
+
+    @Test
+    public void testSolveAllMatchesSolve() throws UnsolvableException {
+        SolutionCache solutionCache = new SolutionCache(new Solver(), 10 * SolutionCache.MIN_ENTRY_WEIGHT);
+        solutionCache.solve(problem);
+        int[] unsolvable = Grids.unsolvableGrid();
+
+        int[][] solutions = solutionCache.solveAll(new int[][]{problem, unsolvable, problem});
+
+        Assertions.assertArrayEquals(new Solver().solve(problem), solutions[0]);
+        Assertions.assertNull(solutions[1]);
+        Assertions.assertArrayEquals(solutions[0], solutions[2]);
+        Assertions.assertEquals(2, solutionCache.getHits());
+        Assertions.assertEquals(2, solutionCache.getMisses());
+    }
+}
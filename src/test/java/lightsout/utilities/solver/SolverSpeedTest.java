@@ -1,5 +1,6 @@
 package lightsout.utilities.solver;
 
+import lightsout.Grids;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
@@ -33,19 +34,9 @@ public class SolverSpeedTest {
     private int[][] generateRandomProblems(int n, int numberOfProblems) {
         int[][] problems = new int[numberOfProblems][n];
         for (int i = 0; i < numberOfProblems; i++) {
-            problems[i] = generateRandomProblem(n);
+            problems[i] = Grids.randomGrid(random, n);
         }
         return problems;
     }
 
-    private int[] generateRandomProblem(int n) {
-        int[] problem = new int[n * n];
-        for (int i = 0; i < n * n; i++) {
-            if (random.nextBoolean()) {
-                problem[i] = 1;
-            }
-        }
-        return problem;
-    }
-
 }
@@ -0,0 +1,248 @@
+package lightsout.utilities.solver;
+
+import lightsout.Grids;
+import lightsout.utilities.solutionchecker.NotASolutionException;
+import lightsout.utilities.solutionchecker.SolutionChecker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class SolverTest {
+
+    private final Random random = new Random(42);
+    private final Solver solver = new Solver();
+    private final SolutionChecker solutionChecker = new SolutionChecker();
+
+    @Test
+    public void testLightChasingFindsOptimalSolutions() throws UnsolvableException {
+        for (int n : new int[]{4, 5, 9, 11, 16}) {
+            MatrixSolverStrategy matrixStrategy = new MatrixSolverStrategy(n);
+            LightChasingSolverStrategy lightChasingStrategy = new LightChasingSolverStrategy(n);
+            Assertions.assertEquals(matrixStrategy.getNullity(), lightChasingStrategy.getNullity());
+            for (int i = 0; i < 20; i++) {
+                long[] y = BitVectors.fromIntVector(Grids.solvableGrid(random, n));
+                for (int j = 0; j < n * n; j++) {
+                    BitVectors.flip(y, j);
+                }
+                Assertions.assertTrue(lightChasingStrategy.isSolvable(y));
+                Assertions.assertEquals(BitVectors.bitCount(matrixStrategy.solve(y)),
+                        BitVectors.bitCount(lightChasingStrategy.solve(y)));
+            }
+        }
+    }
+
+    @Test
+    public void testSolveLargeProblems() throws UnsolvableException, NotASolutionException {
+        for (int n : new int[]{9, 20, 64, 65, 200}) {
+            int[] problem = Grids.solvableGrid(random, n);
+            solutionChecker.checkSolutionIsCorrect(problem, solver.solve(problem));
+        }
+    }
+
+    @Test
+    public void testUnsolvableLargeProblemThrowsException() {
+        int n = 9; // has a non-trivial null space, so a single light off is unsolvable
+        int[] problem = new int[n * n];
+        for (int i = 1; i < n * n; i++) {
+            problem[i] = 1;
+        }
+        Assertions.assertThrows(UnsolvableException.class, () -> solver.solve(problem));
+    }
+
+    @Test
+    public void testIsSolvableAgreesWithSolve() {
+        for (int n : new int[]{3, 4, 5, 9, 11, 16, 19}) {
+            for (int i = 0; i < 50; i++) {
+                int[] problem = new int[n * n];
+                for (int j = 0; j < n * n; j++) {
+                    problem[j] = random.nextInt(2);
+                }
+                boolean solvable;
+                try {
+                    solver.solve(problem);
+                    solvable = true;
+                } catch (UnsolvableException e) {
+                    solvable = false;
+                }
+                Assertions.assertEquals(solvable, solver.isSolvable(problem));
+            }
+        }
+    }
+
+    @Test
+    public void testSolveAll() throws UnsolvableException {
+        int[][] problems = new int[500][];
+        for (int i = 0; i < problems.length; i++) {
+            problems[i] = Grids.solvableGrid(random, 3 + i % 10);
+        }
+        int[] unsolvableProblem = new int[16];
+        unsolvableProblem[0] = 1;
+        problems[7] = unsolvableProblem;
+
+        int[][] solutions = solver.solveAll(problems);
+
+        Assertions.assertNull(solutions[7]);
+        for (int i = 0; i < problems.length; i++) {
+            if (i != 7) {
+                Assertions.assertArrayEquals(solver.solve(problems[i]), solutions[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testOperatorAgreesWithBruteForceOnRandomMatrices() {
+        for (int k = 0; k < 2000; k++) {
+            int size = 1 + random.nextInt(10);
+            int[][] elements = new int[size][size];
+            long[][] rows = new long[size][BitVectors.words(size)];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    if (random.nextInt(4) == 0) {
+                        elements[i][j] = 1;
+                        BitVectors.set(rows[i], j);
+                    }
+                }
+            }
+            int[] y = new int[size];
+            for (int i = 0; i < size; i++) {
+                y[i] = random.nextInt(2);
+            }
+            SolveOperator operator = new SolveOperator(rows, size);
+            int minimalWeight = bruteForceMinimalWeight(elements, y);
+            long[] packedY = BitVectors.fromIntVector(y);
+
+            Assertions.assertEquals(minimalWeight != -1, operator.isSolvable(packedY));
+            if (minimalWeight == -1) {
+                Assertions.assertThrows(UnsolvableException.class, () -> operator.solve(packedY));
+                continue;
+            }
+            try {
+                int[] particularSolution = BitVectors.toIntVector(operator.particularSolution(packedY), size);
+                Assertions.assertArrayEquals(y, multiply(elements, particularSolution));
+                int[] optimalSolution = BitVectors.toIntVector(operator.solve(packedY), size);
+                Assertions.assertArrayEquals(y, multiply(elements, optimalSolution));
+                Assertions.assertEquals(minimalWeight, IntStream.of(optimalSolution).sum());
+            } catch (UnsolvableException e) {
+                Assertions.fail("Solvable system was found unsolvable.", e);
+            }
+        }
+    }
+
+    @Test
+    public void testSolverAgreesWithBruteForceOnLargeGrids() throws NotASolutionException {
+        for (int n : new int[]{9, 11, 14}) {
+            for (int k = 0; k < 10; k++) {
+                int[] problem = random.nextBoolean() ? Grids.solvableGrid(random, n) : Grids.randomGrid(random, n);
+                int[] y = new int[n * n];
+                for (int j = 0; j < n * n; j++) {
+                    y[j] = problem[j] ^ 1;
+                }
+                int minimalPresses = bruteForceMinimalPresses(n, y);
+                if (minimalPresses == -1) {
+                    Assertions.assertThrows(UnsolvableException.class, () -> solver.solve(problem));
+                    continue;
+                }
+                try {
+                    int[] solution = solver.solve(problem);
+                    solutionChecker.checkSolutionIsCorrect(problem, solution);
+                    Assertions.assertEquals(minimalPresses, solution.length);
+                } catch (UnsolvableException e) {
+                    Assertions.fail("Solvable problem was found unsolvable.", e);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSharedSolverSolvesConcurrently() {
+        for (int n : new int[]{5, 9}) {
+            int[][] problems = new int[2000][];
+            for (int i = 0; i < problems.length; i++) {
+                problems[i] = random.nextBoolean() ? Grids.solvableGrid(random, n) : Grids.randomGrid(random, n);
+            }
+
+            int[] sequentialLengths = IntStream.range(0, problems.length).map(i -> solutionLength(problems[i])).toArray();
+            int[] concurrentLengths = IntStream.range(0, problems.length).parallel().map(i -> solutionLength(problems[i])).toArray();
+
+            Assertions.assertArrayEquals(sequentialLengths, concurrentLengths);
+        }
+    }
+
+    /**
+     * @return least number of ones in a solution of the system, found by trying every x, or -1 if there is none
+     */
+    private int bruteForceMinimalWeight(int[][] elements, int[] y) {
+        int columns = elements[0].length;
+        int minimalWeight = -1;
+        for (int mask = 0; mask < 1 << columns; mask++) {
+            int[] x = new int[columns];
+            for (int j = 0; j < columns; j++) {
+                x[j] = mask >>> j & 1;
+            }
+            if (Arrays.equals(y, multiply(elements, x))
+                    && (minimalWeight == -1 || Integer.bitCount(mask) < minimalWeight)) {
+                minimalWeight = Integer.bitCount(mask);
+            }
+        }
+        return minimalWeight;
+    }
+
+    /**
+     * Tries every set of presses in the first row and chases the lights down, as presses in the rows below
+     * are then forced.
+     *
+     * @param y fields that have to be toggled
+     * @return least number of presses toggling exactly the fields in y, or -1 if there is none
+     */
+    private int bruteForceMinimalPresses(int n, int[] y) {
+        int minimalPresses = -1;
+        for (int firstRow = 0; firstRow < 1 << n; firstRow++) {
+            int[] toggled = new int[n * n];
+            int presses = 0;
+            for (int i = 0; i < n * n; i++) {
+                boolean press = i < n ? (firstRow >>> i & 1) == 1 : toggled[i - n] != y[i - n];
+                if (press) {
+                    presses++;
+                    toggled[i] ^= 1;
+                    if (i >= n) {
+                        toggled[i - n] ^= 1;
+                    }
+                    if (i < n * n - n) {
+                        toggled[i + n] ^= 1;
+                    }
+                    if (i % n > 0) {
+                        toggled[i - 1] ^= 1;
+                    }
+                    if (i % n < n - 1) {
+                        toggled[i + 1] ^= 1;
+                    }
+                }
+            }
+            if (Arrays.equals(y, toggled) && (minimalPresses == -1 || presses < minimalPresses)) {
+                minimalPresses = presses;
+            }
+        }
+        return minimalPresses;
+    }
+
+    private int[] multiply(int[][] elements, int[] x) {
+        int[] y = new int[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            for (int j = 0; j < x.length; j++) {
+                y[i] ^= elements[i][j] & x[j];
+            }
+        }
+        return y;
+    }
+
+    private int solutionLength(int[] problem) {
+        try {
+            return solver.solve(problem).length;
+        } catch (UnsolvableException e) {
+            return -1;
+        }
+    }
+}